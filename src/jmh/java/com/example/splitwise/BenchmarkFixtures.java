@@ -0,0 +1,68 @@
+package com.example.splitwise;
+
+import com.example.splitwise.entities.Split;
+import com.example.splitwise.entities.User;
+import com.example.splitwise.strategy.SplitCalculator;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+// In-memory entities for the benchmarks; nothing here touches Spring or the database
+public final class BenchmarkFixtures {
+
+    // 1,234.57 in minor units, chosen so equal shares leave a remainder for most participant counts
+    public static final long EXPENSE_AMOUNT = 123_457;
+
+    private BenchmarkFixtures() {
+    }
+
+    public static List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(User.builder()
+                    .id((long) i + 1)
+                    .userId("USER-" + i)
+                    .name("User " + i)
+                    .email("user" + i + "@example.com")
+                    .build());
+        }
+        return users;
+    }
+
+    public static List<Split> equalSplits(List<User> users, long totalAmount) {
+        long[] shares = new long[users.size()];
+        SplitCalculator.allocateEqually(totalAmount, shares);
+        List<Split> splits = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            splits.add(new Split(users.get(i), shares[i]));
+        }
+        return splits;
+    }
+
+    // Repository stand-in whose save methods hand their argument back and whose other methods do nothing
+    @SuppressWarnings("unchecked")
+    public static <R> R noOpRepository(Class<R> repositoryType) {
+        return (R) Proxy.newProxyInstance(
+                repositoryType.getClassLoader(),
+                new Class<?>[]{repositoryType},
+                (proxy, method, args) -> {
+                    if (method.getName().startsWith("save")) {
+                        return args[0];
+                    }
+                    if (method.getReturnType() == boolean.class) {
+                        return false;
+                    }
+                    if (method.getReturnType() == long.class) {
+                        return 0L;
+                    }
+                    if (method.getReturnType() == int.class) {
+                        return 0;
+                    }
+                    if (method.getReturnType() == List.class) {
+                        return List.of();
+                    }
+                    return null;
+                });
+    }
+}
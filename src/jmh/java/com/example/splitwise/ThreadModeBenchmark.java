@@ -0,0 +1,128 @@
+package com.example.splitwise;
+
+import com.example.splitwise.dto.CreateExpenseRequest;
+import com.example.splitwise.dto.CreateUserRequest;
+import com.example.splitwise.enums.ExpenseSplitType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// End-to-end comparison of the two request execution modes: boots the application on a random port and
+// measures how long a burst of concurrent expense creations takes to complete. Each request touches its own
+// pair of users, so the burst measures thread and pool contention rather than optimistic-lock retries.
+// Both modes run with the same connection pool, so only the request threads differ.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ThreadModeBenchmark {
+
+    @Param({"platform", "virtual"})
+    private String threadMode;
+
+    @Param({"100", "1000"})
+    private int concurrency;
+
+    private static final int POOL_SIZE = 50;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUrl;
+    private List<byte[]> expenseBodies;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        SpringApplicationBuilder application = new SpringApplicationBuilder(SplitwiseApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:bench-" + threadMode + "-" + concurrency,
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN");
+        if ("virtual".equals(threadMode)) {
+            application.profiles("virtual-threads");
+        }
+        // Command-line args outrank the virtual-threads profile file, which sizes the pool on its own
+        context = application.run(
+                "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                "--spring.datasource.hikari.minimum-idle=" + POOL_SIZE,
+                "--spring.datasource.hikari.connection-timeout=10000");
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        for (int i = 0; i < concurrency * 2; i++) {
+            post("/api/users", CreateUserRequest.builder()
+                    .userId("BENCH-" + i)
+                    .name("Bench " + i)
+                    .build()).join();
+        }
+
+        expenseBodies = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            expenseBodies.add(objectMapper.writeValueAsBytes(CreateExpenseRequest.builder()
+                    .description("Thread mode benchmark")
+                    .expenseAmount(100.0)
+                    .paidByUserId("BENCH-" + i)
+                    .splitType(ExpenseSplitType.EQUAL)
+                    .userIds(List.of("BENCH-" + i, "BENCH-" + (i + concurrency)))
+                    .build()));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int createExpenseBurst() {
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(concurrency);
+        for (byte[] body : expenseBodies) {
+            responses.add(send("/api/expenses", body));
+        }
+
+        int created = 0;
+        for (CompletableFuture<HttpResponse<Void>> response : responses) {
+            if (response.join().statusCode() == 201) {
+                created++;
+            }
+        }
+        return created;
+    }
+
+    private CompletableFuture<HttpResponse<Void>> post(String path, Object body) throws Exception {
+        return send(path, objectMapper.writeValueAsBytes(body));
+    }
+
+    private CompletableFuture<HttpResponse<Void>> send(String path, byte[] body) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.splitwise.service;
+
+import com.example.splitwise.BenchmarkFixtures;
+import com.example.splitwise.entities.PairwiseBalanceId;
+import com.example.splitwise.entities.Split;
+import com.example.splitwise.entities.User;
+import com.example.splitwise.entities.UserExpenseBalanceSheet;
+import com.example.splitwise.repository.BalanceSheetRepository;
+import com.example.splitwise.repository.PairwiseBalanceRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+// In-memory fold of one expense into the sheet totals and the per-pair deltas, as LedgerService does in SYNC mode;
+// the sheet save and the pair upsert are no-ops
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BalanceSheetUpdateBenchmark {
+
+    @Param({"2", "10", "100", "1000", "10000"})
+    private int participants;
+
+    private BalanceSheetService balanceSheetService;
+    private User paidBy;
+    private List<Split> splits;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        balanceSheetService = new BalanceSheetService(
+                BenchmarkFixtures.noOpRepository(BalanceSheetRepository.class),
+                BenchmarkFixtures.noOpRepository(PairwiseBalanceRepository.class),
+                new BalanceSheetCache(10_000, 60));
+        List<User> users = BenchmarkFixtures.users(participants);
+        paidBy = users.get(0);
+        splits = BenchmarkFixtures.equalSplits(users, BenchmarkFixtures.EXPENSE_AMOUNT);
+    }
+
+    @Benchmark
+    public User updateBalanceSheets() {
+        Map<String, UserExpenseBalanceSheet> touchedSheets = new TreeMap<>();
+        SortedMap<PairwiseBalanceId, Long> pairDeltas = new TreeMap<>();
+        balanceSheetService.applyExpense(paidBy, splits, touchedSheets, pairDeltas);
+        balanceSheetService.saveBalanceSheets(touchedSheets.values(), pairDeltas);
+        return paidBy;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.splitwise.strategy;
+
+import com.example.splitwise.BenchmarkFixtures;
+import com.example.splitwise.entities.Split;
+import com.example.splitwise.entities.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpenseSplitBenchmark {
+
+    @Param({"2", "10", "100", "1000", "10000"})
+    private int participants;
+
+    private final EqualExpenseSplit equalExpenseSplit = new EqualExpenseSplit();
+    private final PercentageExpenseSplit percentageExpenseSplit = new PercentageExpenseSplit();
+    private final ExactExpenseSplit exactExpenseSplit = new ExactExpenseSplit();
+    private final UnequalExpenseSplit unequalExpenseSplit = new UnequalExpenseSplit();
+
+    private List<User> users;
+    private long[] percentages;
+    private List<Split> splits;
+
+    @Setup
+    public void setUp() {
+        users = BenchmarkFixtures.users(participants);
+        percentages = new long[participants];
+        SplitCalculator.allocateEqually(PercentageExpenseSplit.FULL_PERCENTAGE, percentages);
+        splits = BenchmarkFixtures.equalSplits(users, BenchmarkFixtures.EXPENSE_AMOUNT);
+    }
+
+    @Benchmark
+    public List<Split> equalSplit() {
+        return equalExpenseSplit.validateAndGetSplits(users, null, BenchmarkFixtures.EXPENSE_AMOUNT);
+    }
+
+    @Benchmark
+    public List<Split> percentageSplit() {
+        return percentageExpenseSplit.validateAndGetSplits(users, percentages, BenchmarkFixtures.EXPENSE_AMOUNT);
+    }
+
+    @Benchmark
+    public void exactSplit(Blackhole blackhole) {
+        exactExpenseSplit.validateSplitRequest(splits, BenchmarkFixtures.EXPENSE_AMOUNT);
+        blackhole.consume(splits);
+    }
+
+    @Benchmark
+    public void unequalSplit(Blackhole blackhole) {
+        unequalExpenseSplit.validateSplitRequest(splits, BenchmarkFixtures.EXPENSE_AMOUNT);
+        blackhole.consume(splits);
+    }
+}
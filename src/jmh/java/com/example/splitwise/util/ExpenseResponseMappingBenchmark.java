@@ -0,0 +1,62 @@
+package com.example.splitwise.util;
+
+import com.example.splitwise.BenchmarkFixtures;
+import com.example.splitwise.dto.ExpenseResponse;
+import com.example.splitwise.entities.Expense;
+import com.example.splitwise.entities.Group;
+import com.example.splitwise.entities.Split;
+import com.example.splitwise.entities.User;
+import com.example.splitwise.enums.ExpenseSplitType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpenseResponseMappingBenchmark {
+
+    @Param({"2", "10", "100", "1000", "10000"})
+    private int participants;
+
+    private Expense expense;
+
+    @Setup
+    public void setUp() {
+        List<User> users = BenchmarkFixtures.users(participants);
+        List<Split> splits = BenchmarkFixtures.equalSplits(users, BenchmarkFixtures.EXPENSE_AMOUNT);
+        Group group = new Group();
+        group.setGroupId("GROUP-1");
+        expense = Expense.builder()
+                .expenseId("EXP-BENCH")
+                .description("Benchmark expense")
+                .expenseAmount(BenchmarkFixtures.EXPENSE_AMOUNT)
+                .paidBy(users.get(0))
+                .splitType(ExpenseSplitType.EQUAL)
+                .splits(splits)
+                .group(group)
+                .build();
+        for (Split split : splits) {
+            split.setExpense(expense);
+        }
+    }
+
+    @Benchmark
+    public ExpenseResponse toResponse() {
+        return ExpenseMapper.toResponse(expense);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.splitwise.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+// Thin HTTP/1.1 client over the application under test. A request is timed from send until its body has been read
+// in full, so the recorded latency is what a caller of the API would see.
+final class ApiClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+
+    ApiClient(HttpClient httpClient, ObjectMapper objectMapper, int port) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.baseUrl = "http://localhost:" + port;
+    }
+
+    int get(String endpoint, String path, LatencyRecorder recorder) {
+        return send(endpoint, request(path).GET().build(), recorder);
+    }
+
+    int post(String endpoint, String path, Object body, LatencyRecorder recorder) {
+        HttpRequest.BodyPublisher publisher = body != null
+                ? HttpRequest.BodyPublishers.ofByteArray(toJson(body))
+                : HttpRequest.BodyPublishers.noBody();
+        return send(endpoint, request(path).header("Content-Type", "application/json").POST(publisher).build(),
+                recorder);
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT);
+    }
+
+    // Returns the status code, or -1 when no response arrived; a null recorder leaves the request unmeasured
+    private int send(String endpoint, HttpRequest request, LatencyRecorder recorder) {
+        long start = System.nanoTime();
+        int status;
+        try {
+            status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            status = -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            status = -1;
+        }
+        if (recorder != null) {
+            recorder.record(endpoint, System.nanoTime() - start, status);
+        }
+        return status;
+    }
+
+    private byte[] toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.splitwise.loadtest;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Raw latency samples per endpoint. Each virtual user owns one recorder, so recording takes no lock; the recorders
+// are merged once the run is over and percentiles are read from the sorted samples, without binning error.
+final class LatencyRecorder {
+
+    private final Map<String, Samples> samplesByEndpoint = new TreeMap<>();
+
+    void record(String endpoint, long nanos, int status) {
+        samplesByEndpoint.computeIfAbsent(endpoint, key -> new Samples()).add(nanos, status);
+    }
+
+    static Map<String, Samples> merge(List<LatencyRecorder> recorders) {
+        Map<String, Samples> merged = new TreeMap<>();
+        for (LatencyRecorder recorder : recorders) {
+            recorder.samplesByEndpoint.forEach((endpoint, samples) ->
+                    merged.computeIfAbsent(endpoint, key -> new Samples()).addAll(samples));
+        }
+        return merged;
+    }
+
+    static final class Samples {
+
+        private long[] nanos = new long[1024];
+        private int count;
+        private long errors;
+        // Status -1 stands for a request that failed before a response arrived
+        private final Map<Integer, Long> statusCounts = new TreeMap<>();
+
+        private void add(long latencyNanos, int status) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = latencyNanos;
+            statusCounts.merge(status, 1L, Long::sum);
+            if (status < 200 || status >= 300) {
+                errors++;
+            }
+        }
+
+        private void addAll(Samples other) {
+            if (count + other.count > nanos.length) {
+                nanos = Arrays.copyOf(nanos, Math.max(nanos.length * 2, count + other.count));
+            }
+            System.arraycopy(other.nanos, 0, nanos, count, other.count);
+            count += other.count;
+            errors += other.errors;
+            other.statusCounts.forEach((status, n) -> statusCounts.merge(status, n, Long::sum));
+        }
+
+        int getCount() {
+            return count;
+        }
+
+        long getErrors() {
+            return errors;
+        }
+
+        Map<Integer, Long> getStatusCounts() {
+            return statusCounts;
+        }
+
+        // Sorted copy of the samples, for percentile lookups
+        long[] sorted() {
+            long[] sorted = Arrays.copyOf(nanos, count);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
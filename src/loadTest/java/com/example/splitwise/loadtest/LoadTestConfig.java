@@ -0,0 +1,60 @@
+package com.example.splitwise.loadtest;
+
+import com.example.splitwise.enums.ExpenseSplitType;
+import lombok.Getter;
+
+import java.nio.file.Path;
+
+// Every knob is a system property, passed from Gradle as -PloadTest.<name>=<value>
+@Getter
+final class LoadTestConfig {
+
+    private final int virtualUsers = Integer.getInteger("loadTest.virtualUsers", 32);
+    private final int warmupSeconds = Integer.getInteger("loadTest.warmupSeconds", 10);
+    private final int durationSeconds = Integer.getInteger("loadTest.durationSeconds", 60);
+    private final int users = Integer.getInteger("loadTest.users", 500);
+    private final int groups = Integer.getInteger("loadTest.groups", 100);
+    private final long seed = Long.getLong("loadTest.seed", 42L);
+
+    // Share of created expenses that belong to a group; the rest are between two to five random users
+    private final int groupExpensePercent = Integer.getInteger("loadTest.groupExpensePercent", 80);
+
+    private final WeightedMix<Operation> operationMix = WeightedMix.parse(System.getProperty(
+            "loadTest.operations", "CREATE_EXPENSE:60,GET_BALANCE_SHEET:30,GET_GROUP:5,CREATE_USER:5"),
+            Operation::valueOf);
+    private final WeightedMix<Integer> groupSizeMix = WeightedMix.parse(
+            System.getProperty("loadTest.groupSizes", "3:40,5:30,10:20,50:10"),
+            Integer::valueOf);
+    private final WeightedMix<ExpenseSplitType> splitTypeMix = WeightedMix.parse(
+            System.getProperty("loadTest.splitTypes", "EQUAL:50,EXACT:20,PERCENTAGE:20,UNEQUAL:10"),
+            ExpenseSplitType::valueOf);
+
+    private final Path output = Path.of(
+            System.getProperty("loadTest.output", "build/reports/loadtest/results.json"));
+
+    LoadTestConfig() {
+        if (virtualUsers < 1 || durationSeconds < 1 || warmupSeconds < 0 || groups < 0) {
+            throw new IllegalArgumentException("virtualUsers and durationSeconds must be positive, "
+                    + "warmupSeconds and groups not negative");
+        }
+        if (groups < 1 && operationMix.getWeights().containsKey(Operation.GET_GROUP)) {
+            throw new IllegalArgumentException("GET_GROUP needs at least one group");
+        }
+        if (users < 2) {
+            throw new IllegalArgumentException("At least two users are needed to split an expense");
+        }
+        for (int size : groupSizeMix.getWeights().keySet()) {
+            if (size < 2 || size > users) {
+                throw new IllegalArgumentException("Group size " + size + " must be between 2 and " + users);
+            }
+        }
+    }
+
+    // The requests a virtual user sends; seeding also creates users and groups but is not measured
+    enum Operation {
+        CREATE_EXPENSE,
+        GET_BALANCE_SHEET,
+        GET_GROUP,
+        CREATE_USER
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.splitwise.loadtest;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+// Written as JSON at the end of a run; latencies are in milliseconds, throughput in requests per second
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LoadTestReport {
+    private Instant startedAt;
+    private Map<String, Object> settings;
+    private SeedSummary seed;
+    private double measuredSeconds;
+    private long requests;
+    private long errors;
+    private double throughputPerSecond;
+    private Map<String, EndpointStats> endpoints;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class SeedSummary {
+        private int users;
+        private int groups;
+        private long memberships;
+        private double seconds;
+        private Map<String, EndpointStats> endpoints;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class EndpointStats {
+        private long requests;
+        private long errors;
+        private double throughputPerSecond;
+        private double meanMillis;
+        private double p50Millis;
+        private double p95Millis;
+        private double p99Millis;
+        private double maxMillis;
+        private Map<Integer, Long> statusCounts;
+    }
+}
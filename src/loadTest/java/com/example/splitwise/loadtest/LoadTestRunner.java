@@ -0,0 +1,225 @@
+package com.example.splitwise.loadtest;
+
+import com.example.splitwise.SplitwiseApplication;
+import com.example.splitwise.dto.CreateGroupRequest;
+import com.example.splitwise.dto.CreateUserRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+// Boots the application on an in-memory H2 database and a random local port, seeds users and groups, then lets
+// the virtual users drive the REST API for the configured time. Nothing leaves the machine. Run with
+// ./gradlew loadTest; the report goes to build/reports/loadtest/results.json unless loadTest.output says otherwise.
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = new LoadTestConfig();
+        Population population = Population.plan(config);
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SplitwiseApplication.class)
+                .profiles("loadtest")
+                .run(args);
+             HttpClient httpClient = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(Duration.ofSeconds(5))
+                     .build()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+            ApiClient client = new ApiClient(httpClient, objectMapper, port);
+
+            Instant startedAt = Instant.now();
+            LoadTestReport.SeedSummary seed = seed(config, population, client);
+            LoadTestReport report = run(config, population, client);
+            report.setStartedAt(startedAt);
+            report.setSettings(settings(config));
+            report.setSeed(seed);
+
+            Files.createDirectories(config.getOutput().toAbsolutePath().getParent());
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(config.getOutput().toFile(), report);
+            print(report, config);
+        }
+    }
+
+    // Users first, then groups and their members, spread over as many workers as there are virtual users
+    private static LoadTestReport.SeedSummary seed(LoadTestConfig config, Population population, ApiClient client)
+            throws InterruptedException {
+        int workers = config.getVirtualUsers();
+        List<LatencyRecorder> recorders = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            recorders.add(new LatencyRecorder());
+        }
+
+        long start = System.nanoTime();
+        forEachWorker(workers, worker -> {
+            LatencyRecorder recorder = recorders.get(worker);
+            for (int i = worker; i < population.getUserIds().size(); i += workers) {
+                String userId = population.getUserIds().get(i);
+                CreateUserRequest request = CreateUserRequest.builder()
+                        .userId(userId)
+                        .name("Load test user " + i)
+                        .email(userId.toLowerCase() + "@loadtest.local")
+                        .build();
+                requireSuccess(client.post("POST /api/users", "/api/users", request, recorder), userId);
+            }
+        });
+        forEachWorker(workers, worker -> {
+            LatencyRecorder recorder = recorders.get(worker);
+            for (int i = worker; i < population.getGroups().size(); i += workers) {
+                Population.SeededGroup group = population.getGroups().get(i);
+                List<String> members = group.memberUserIds();
+                CreateGroupRequest request = CreateGroupRequest.builder()
+                        .groupId(group.groupId())
+                        .groupName("Load test group " + i)
+                        .createdByUserId(members.get(0))
+                        .build();
+                requireSuccess(client.post("POST /api/groups", "/api/groups", request, recorder), group.groupId());
+                for (String userId : members.subList(1, members.size())) {
+                    int status = client.post("POST /api/groups/{groupId}/members/{userId}",
+                            "/api/groups/" + group.groupId() + "/members/" + userId, null, recorder);
+                    requireSuccess(status, userId + " in " + group.groupId());
+                }
+            }
+        });
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        return LoadTestReport.SeedSummary.builder()
+                .users(population.getUserIds().size())
+                .groups(population.getGroups().size())
+                .memberships(population.getMemberships())
+                .seconds(round(seconds))
+                .endpoints(endpointStats(LatencyRecorder.merge(recorders), seconds))
+                .build();
+    }
+
+    private static LoadTestReport run(LoadTestConfig config, Population population, ApiClient client)
+            throws InterruptedException {
+        long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(config.getWarmupSeconds());
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(config.getDurationSeconds());
+        List<VirtualUser> virtualUsers = new ArrayList<>(config.getVirtualUsers());
+        for (int i = 0; i < config.getVirtualUsers(); i++) {
+            virtualUsers.add(new VirtualUser(i, config, population, client, measureFrom, end));
+        }
+
+        forEachWorker(virtualUsers.size(), index -> virtualUsers.get(index).run());
+        // Requests still in flight at the deadline are counted, so measure up to when the last one returned
+        double seconds = (System.nanoTime() - measureFrom) / 1e9;
+
+        List<LatencyRecorder> recorders = virtualUsers.stream().map(VirtualUser::getRecorder).toList();
+        Map<String, LoadTestReport.EndpointStats> endpoints = endpointStats(LatencyRecorder.merge(recorders), seconds);
+        long requests = endpoints.values().stream().mapToLong(LoadTestReport.EndpointStats::getRequests).sum();
+        long errors = endpoints.values().stream().mapToLong(LoadTestReport.EndpointStats::getErrors).sum();
+        return LoadTestReport.builder()
+                .measuredSeconds(round(seconds))
+                .requests(requests)
+                .errors(errors)
+                .throughputPerSecond(round(requests / seconds))
+                .endpoints(endpoints)
+                .build();
+    }
+
+    // Runs one task per worker on virtual threads and waits for all of them; the first failure aborts the run
+    private static void forEachWorker(int workers, IntConsumer task) throws InterruptedException {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>(workers);
+            for (int i = 0; i < workers; i++) {
+                int worker = i;
+                futures.add(executor.submit(() -> task.accept(worker)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Load test worker failed", e.getCause());
+        }
+    }
+
+    private static void requireSuccess(int status, String what) {
+        if (status < 200 || status >= 300) {
+            throw new IllegalStateException("Seeding " + what + " failed with status " + status);
+        }
+    }
+
+    private static Map<String, LoadTestReport.EndpointStats> endpointStats(
+            Map<String, LatencyRecorder.Samples> samplesByEndpoint, double seconds) {
+        Map<String, LoadTestReport.EndpointStats> stats = new LinkedHashMap<>();
+        samplesByEndpoint.forEach((endpoint, samples) -> {
+            long[] sorted = samples.sorted();
+            long total = 0;
+            for (long nanos : sorted) {
+                total += nanos;
+            }
+            stats.put(endpoint, LoadTestReport.EndpointStats.builder()
+                    .requests(sorted.length)
+                    .errors(samples.getErrors())
+                    .throughputPerSecond(round(sorted.length / seconds))
+                    .meanMillis(millis(sorted.length > 0 ? total / sorted.length : 0))
+                    .p50Millis(millis(percentile(sorted, 50)))
+                    .p95Millis(millis(percentile(sorted, 95)))
+                    .p99Millis(millis(percentile(sorted, 99)))
+                    .maxMillis(millis(sorted.length > 0 ? sorted[sorted.length - 1] : 0))
+                    .statusCounts(samples.getStatusCounts())
+                    .build());
+        });
+        return stats;
+    }
+
+    // Nearest-rank percentile of sorted samples
+    private static long percentile(long[] sorted, double percent) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    private static Map<String, Object> settings(LoadTestConfig config) {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("virtualUsers", config.getVirtualUsers());
+        settings.put("warmupSeconds", config.getWarmupSeconds());
+        settings.put("durationSeconds", config.getDurationSeconds());
+        settings.put("users", config.getUsers());
+        settings.put("groups", config.getGroups());
+        settings.put("groupExpensePercent", config.getGroupExpensePercent());
+        settings.put("seed", config.getSeed());
+        settings.put("operations", config.getOperationMix().getWeights());
+        settings.put("groupSizes", config.getGroupSizeMix().getWeights());
+        settings.put("splitTypes", config.getSplitTypeMix().getWeights());
+        settings.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        return settings;
+    }
+
+    private static void print(LoadTestReport report, LoadTestConfig config) {
+        System.out.printf("%n%d requests in %.1fs with %d virtual users: %.1f req/s, %d errors%n",
+                report.getRequests(), report.getMeasuredSeconds(), config.getVirtualUsers(),
+                report.getThroughputPerSecond(), report.getErrors());
+        System.out.printf("%-45s %9s %9s %9s %9s %9s%n", "endpoint", "req/s", "p50 ms", "p95 ms", "p99 ms", "errors");
+        report.getEndpoints().forEach((endpoint, stats) -> System.out.printf("%-45s %9.1f %9.2f %9.2f %9.2f %9d%n",
+                endpoint, stats.getThroughputPerSecond(), stats.getP50Millis(), stats.getP95Millis(),
+                stats.getP99Millis(), stats.getErrors()));
+        System.out.println("Report written to " + config.getOutput().toAbsolutePath());
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.splitwise.loadtest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+// The users and groups created before the measured run, drawn from the configured group size mix. Built from the
+// seed alone, so two runs with the same settings send the same requests.
+final class Population {
+
+    private final List<String> userIds;
+    private final List<SeededGroup> groups;
+
+    private Population(List<String> userIds, List<SeededGroup> groups) {
+        this.userIds = userIds;
+        this.groups = groups;
+    }
+
+    static Population plan(LoadTestConfig config) {
+        Random random = new Random(config.getSeed());
+        List<String> userIds = new ArrayList<>(config.getUsers());
+        for (int i = 0; i < config.getUsers(); i++) {
+            userIds.add("LT-USER-" + i);
+        }
+
+        List<SeededGroup> groups = new ArrayList<>(config.getGroups());
+        List<String> shuffled = new ArrayList<>(userIds);
+        for (int i = 0; i < config.getGroups(); i++) {
+            int size = config.getGroupSizeMix().pick(random);
+            Collections.shuffle(shuffled, random);
+            groups.add(new SeededGroup("LT-GROUP-" + i, List.copyOf(shuffled.subList(0, size))));
+        }
+        return new Population(List.copyOf(userIds), List.copyOf(groups));
+    }
+
+    List<String> getUserIds() {
+        return userIds;
+    }
+
+    List<SeededGroup> getGroups() {
+        return groups;
+    }
+
+    long getMemberships() {
+        return groups.stream().mapToLong(group -> group.memberUserIds().size()).sum();
+    }
+
+    // The first member creates the group and is added by the server; the others join one request each
+    record SeededGroup(String groupId, List<String> memberUserIds) {
+    }
+}
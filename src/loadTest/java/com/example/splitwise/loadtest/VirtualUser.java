@@ -0,0 +1,144 @@
+package com.example.splitwise.loadtest;
+
+import com.example.splitwise.dto.CreateExpenseRequest;
+import com.example.splitwise.dto.CreateUserRequest;
+import com.example.splitwise.dto.SplitDetail;
+import com.example.splitwise.enums.ExpenseSplitType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+// One simulated client: sends requests back to back, each picked from the operation mix, until the run ends.
+// Requests started during warm-up are sent but not recorded.
+final class VirtualUser implements Runnable {
+
+    private static final int MAX_OTHER_PARTICIPANTS = 4;
+
+    private final int index;
+    private final LoadTestConfig config;
+    private final Population population;
+    private final ApiClient client;
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    private final Random random;
+    private final long measureFromNanos;
+    private final long endNanos;
+    private int createdUsers;
+
+    VirtualUser(int index, LoadTestConfig config, Population population, ApiClient client,
+                long measureFromNanos, long endNanos) {
+        this.index = index;
+        this.config = config;
+        this.population = population;
+        this.client = client;
+        this.random = new Random(config.getSeed() + 1 + index);
+        this.measureFromNanos = measureFromNanos;
+        this.endNanos = endNanos;
+    }
+
+    @Override
+    public void run() {
+        while (System.nanoTime() < endNanos && !Thread.currentThread().isInterrupted()) {
+            LatencyRecorder target = System.nanoTime() >= measureFromNanos ? recorder : null;
+            switch (config.getOperationMix().pick(random)) {
+                case CREATE_EXPENSE -> client.post("POST /api/expenses", "/api/expenses", nextExpense(), target);
+                case GET_BALANCE_SHEET -> client.get("GET /api/balance-sheets/{userId}",
+                        "/api/balance-sheets/" + anyUser(), target);
+                case GET_GROUP -> client.get("GET /api/groups/{groupId}",
+                        "/api/groups/" + anyGroup().groupId(), target);
+                case CREATE_USER -> client.post("POST /api/users", "/api/users", nextUser(), target);
+            }
+        }
+    }
+
+    LatencyRecorder getRecorder() {
+        return recorder;
+    }
+
+    private CreateExpenseRequest nextExpense() {
+        boolean inGroup = !population.getGroups().isEmpty() && random.nextInt(100) < config.getGroupExpensePercent();
+        String groupId = null;
+        List<String> participants;
+        if (inGroup) {
+            Population.SeededGroup group = anyGroup();
+            groupId = group.groupId();
+            participants = sample(group.memberUserIds(), 2 + random.nextInt(group.memberUserIds().size() - 1));
+        } else {
+            participants = sample(population.getUserIds(), 2 + random.nextInt(MAX_OTHER_PARTICIPANTS));
+        }
+
+        long amountCents = 100 + random.nextInt(50_000);
+        ExpenseSplitType splitType = config.getSplitTypeMix().pick(random);
+        CreateExpenseRequest.CreateExpenseRequestBuilder request = CreateExpenseRequest.builder()
+                .description("Load test expense")
+                .expenseAmount(amountCents / 100.0)
+                .paidByUserId(participants.get(random.nextInt(participants.size())))
+                .splitType(splitType)
+                .groupId(groupId);
+
+        if (splitType == ExpenseSplitType.EQUAL) {
+            return request.userIds(participants).build();
+        }
+        // PERCENTAGE shares are in basis points of 100%, the others in cents of the amount
+        long[] shares = randomShares(splitType == ExpenseSplitType.PERCENTAGE ? 10_000 : amountCents,
+                participants.size());
+        List<SplitDetail> splits = new ArrayList<>(participants.size());
+        for (int i = 0; i < shares.length; i++) {
+            splits.add(new SplitDetail(participants.get(i), shares[i] / 100.0));
+        }
+        return request.splits(splits).build();
+    }
+
+    private CreateUserRequest nextUser() {
+        String userId = "LT-VU-" + index + "-" + createdUsers++;
+        return CreateUserRequest.builder()
+                .userId(userId)
+                .name("Load test user " + userId)
+                .email(userId.toLowerCase() + "@loadtest.local")
+                .build();
+    }
+
+    // Random positive weights scaled to the total; the rounding remainder goes to the first share
+    private long[] randomShares(long total, int count) {
+        long[] shares = new long[count];
+        long weightSum = 0;
+        for (int i = 0; i < count; i++) {
+            shares[i] = 1 + random.nextInt(10);
+            weightSum += shares[i];
+        }
+        long allocated = 0;
+        for (int i = 0; i < count; i++) {
+            shares[i] = total * shares[i] / weightSum;
+            allocated += shares[i];
+        }
+        shares[0] += total - allocated;
+        return shares;
+    }
+
+    private List<String> sample(List<String> userIds, int count) {
+        int size = Math.min(count, userIds.size());
+        if (size * 4 >= userIds.size()) {
+            List<String> shuffled = new ArrayList<>(userIds);
+            Collections.shuffle(shuffled, random);
+            return shuffled.subList(0, size);
+        }
+        // Small sample from a large pool: draw distinct indexes instead of shuffling the whole pool
+        List<String> sample = new ArrayList<>(size);
+        while (sample.size() < size) {
+            String userId = userIds.get(random.nextInt(userIds.size()));
+            if (!sample.contains(userId)) {
+                sample.add(userId);
+            }
+        }
+        return sample;
+    }
+
+    private String anyUser() {
+        return population.getUserIds().get(random.nextInt(population.getUserIds().size()));
+    }
+
+    private Population.SeededGroup anyGroup() {
+        return population.getGroups().get(random.nextInt(population.getGroups().size()));
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.splitwise.loadtest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+// Picks values in proportion to their weights, parsed from "value:weight,value:weight"
+final class WeightedMix<T> {
+
+    private final List<T> values = new ArrayList<>();
+    private final List<Integer> cumulativeWeights = new ArrayList<>();
+    private final Map<T, Integer> weights = new LinkedHashMap<>();
+    private int totalWeight;
+
+    static <T> WeightedMix<T> parse(String spec, Function<String, T> parser) {
+        WeightedMix<T> mix = new WeightedMix<>();
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected value:weight but got '" + entry + "' in " + spec);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                mix.add(parser.apply(parts[0].trim()), weight);
+            }
+        }
+        if (mix.totalWeight == 0) {
+            throw new IllegalArgumentException("No positive weight in " + spec);
+        }
+        return mix;
+    }
+
+    private void add(T value, int weight) {
+        totalWeight += weight;
+        values.add(value);
+        cumulativeWeights.add(totalWeight);
+        weights.merge(value, weight, Integer::sum);
+    }
+
+    T pick(Random random) {
+        int target = random.nextInt(totalWeight);
+        for (int i = 0; i < values.size(); i++) {
+            if (target < cumulativeWeights.get(i)) {
+                return values.get(i);
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+
+    Map<T, Integer> getWeights() {
+        return weights;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.splitwise.controller;
+
+import com.example.splitwise.dto.ApiResponse;
+import com.example.splitwise.dto.ImportReport;
+import com.example.splitwise.dto.ReconciliationReport;
+import com.example.splitwise.dto.RollupBackfillReport;
+import com.example.splitwise.enums.DataFormat;
+import com.example.splitwise.service.BalanceReconciliationService;
+import com.example.splitwise.service.ExpenseImportService;
+import com.example.splitwise.service.SpendingRollupBackfillService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final BalanceReconciliationService balanceReconciliationService;
+    private final SpendingRollupBackfillService spendingRollupBackfillService;
+    private final ExpenseImportService expenseImportService;
+
+    @PostMapping("/reconciliations")
+    public ResponseEntity<ApiResponse<ReconciliationReport>> startReconciliation(
+            @RequestParam(defaultValue = "false") boolean repair) {
+        try {
+            ReconciliationReport report = balanceReconciliationService.start(repair);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(ApiResponse.success("Reconciliation started", report));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/reconciliations/{jobId}")
+    public ResponseEntity<ApiResponse<ReconciliationReport>> getReconciliation(@PathVariable String jobId) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success(balanceReconciliationService.getReport(jobId)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/rollups/backfill")
+    public ResponseEntity<ApiResponse<RollupBackfillReport>> backfillRollups() {
+        try {
+            RollupBackfillReport report = spendingRollupBackfillService.backfill();
+            return ResponseEntity.ok(ApiResponse.success("Rollup backfill completed", report));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/imports")
+    public ResponseEntity<ApiResponse<ImportReport>> startImport(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "NDJSON") DataFormat format,
+            @RequestParam(required = false) Integer chunkSize) {
+        try {
+            ImportReport report = expenseImportService.startUpload(file, format, chunkSize);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(ApiResponse.success("Import started", report));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/imports/{jobId}/resume")
+    public ResponseEntity<ApiResponse<ImportReport>> resumeImport(@PathVariable String jobId) {
+        try {
+            ImportReport report = expenseImportService.resume(jobId);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(ApiResponse.success("Import resumed", report));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/imports/{jobId}")
+    public ResponseEntity<ApiResponse<ImportReport>> getImport(@PathVariable String jobId) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success(expenseImportService.getReport(jobId)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+}
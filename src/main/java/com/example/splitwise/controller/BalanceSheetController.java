@@ -1,36 +1,25 @@
 package com.example.splitwise.controller;
 
 import com.example.splitwise.dto.ApiResponse;
-import com.example.splitwise.dto.BalanceDetail;
 import com.example.splitwise.dto.BalanceSheetResponse;
-import com.example.splitwise.entities.Balance;
-import com.example.splitwise.entities.User;
-import com.example.splitwise.entities.UserExpenseBalanceSheet;
+import com.example.splitwise.dto.CacheStatsResponse;
 import com.example.splitwise.service.BalanceSheetService;
-import com.example.splitwise.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.stream.Collectors;
-
 @RestController
 @RequestMapping("/api/balance-sheets")
 @RequiredArgsConstructor
 public class BalanceSheetController {
 
     private final BalanceSheetService balanceSheetService;
-    private final UserService userService;
 
     @GetMapping("/{userId}")
     public ResponseEntity<ApiResponse<BalanceSheetResponse>> getBalanceSheet(@PathVariable String userId) {
         try {
-            User user = userService.getUserById(userId);
-            UserExpenseBalanceSheet balanceSheet = balanceSheetService.getUserBalanceSheet(user);
-            BalanceSheetResponse response = mapToBalanceSheetResponse(userId, balanceSheet);
+            BalanceSheetResponse response = balanceSheetService.getBalanceSheetResponse(userId);
             return ResponseEntity.ok(ApiResponse.success(response));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -38,27 +27,8 @@ public class BalanceSheetController {
         }
     }
 
-    private BalanceSheetResponse mapToBalanceSheetResponse(String userId, UserExpenseBalanceSheet balanceSheet) {
-        Map<String, BalanceDetail> userVsBalance = new HashMap<>();
-        
-        if (balanceSheet.getUserVsBalance() != null) {
-            userVsBalance = balanceSheet.getUserVsBalance().entrySet().stream()
-                    .collect(Collectors.toMap(
-                            Map.Entry::getKey,
-                            entry -> BalanceDetail.builder()
-                                    .amountOwe(entry.getValue().getAmountOwe())
-                                    .amountGetBack(entry.getValue().getAmountGetBack())
-                                    .build()
-                    ));
-        }
-
-        return BalanceSheetResponse.builder()
-                .userId(userId)
-                .totalPayment(balanceSheet.getTotalPayment())
-                .totalYourExpense(balanceSheet.getTotalYourExpense())
-                .totalYouGetBack(balanceSheet.getTotalYouGetBack())
-                .totalYouOwe(balanceSheet.getTotalYouOwe())
-                .userVsBalance(userVsBalance)
-                .build();
+    @GetMapping("/cache/stats")
+    public ResponseEntity<ApiResponse<CacheStatsResponse>> getCacheStats() {
+        return ResponseEntity.ok(ApiResponse.success(balanceSheetService.getCacheStats()));
     }
 }
@@ -2,24 +2,31 @@ package com.example.splitwise.controller;
 
 import com.example.splitwise.dto.*;
 import com.example.splitwise.entities.Expense;
+import com.example.splitwise.entities.IdempotencyRecord;
 import com.example.splitwise.entities.Split;
 import com.example.splitwise.entities.User;
-import com.example.splitwise.enums.ExpenseSplitType;
+import com.example.splitwise.metrics.ExpenseMetrics;
+import com.example.splitwise.service.ConcurrencyRetryPolicy;
+import com.example.splitwise.service.ExpenseBatchService;
+import com.example.splitwise.service.ExpenseQueryService;
 import com.example.splitwise.service.ExpenseService;
 import com.example.splitwise.service.GroupService;
+import com.example.splitwise.service.IdempotencyService;
 import com.example.splitwise.service.UserService;
-import com.example.splitwise.strategy.ExpenseSplit;
-import com.example.splitwise.strategy.SplitFactory;
+import com.example.splitwise.util.ExpenseMapper;
+import com.example.splitwise.util.Pagination;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/expenses")
@@ -27,57 +34,89 @@ import java.util.stream.Collectors;
 public class ExpenseController {
 
     private final ExpenseService expenseService;
+    private final ExpenseQueryService expenseQueryService;
     private final UserService userService;
     private final GroupService groupService;
-    private final SplitFactory splitFactory;
+    private final ExpenseBatchService expenseBatchService;
+    private final ConcurrencyRetryPolicy concurrencyRetryPolicy;
+    private final ExpenseMetrics expenseMetrics;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping
-    public ResponseEntity<ApiResponse<ExpenseResponse>> createExpense(@Valid @RequestBody CreateExpenseRequest request) {
+    public ResponseEntity<ApiResponse<ExpenseResponse>> createExpense(
+            @Valid @RequestBody CreateExpenseRequest request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        String requestHash = null;
         try {
+            if (idempotencyKey != null) {
+                requestHash = idempotencyService.hashRequest(request);
+                idempotencyService.bindToCurrentRequest(idempotencyKey, requestHash);
+            }
+
             String expenseId = request.getExpenseId();
             if (expenseId == null || expenseId.isEmpty()) {
                 expenseId = expenseService.generateExpenseId();
             }
 
-            List<Split> splits = createSplits(request);
-            Expense expense;
-
-            if (request.getGroupId() != null && !request.getGroupId().isEmpty()) {
-                com.example.splitwise.entities.Group group = groupService.getGroupById(request.getGroupId());
-                expense = expenseService.createExpenseWithGroup(
-                        expenseId,
-                        request.getDescription(),
-                        request.getExpenseAmount(),
-                        splits,
-                        request.getSplitType(),
-                        request.getPaidByUserId(),
-                        group
-                );
-            } else {
-                expense = expenseService.createExpense(
-                        expenseId,
-                        request.getDescription(),
-                        request.getExpenseAmount(),
-                        splits,
-                        request.getSplitType(),
-                        request.getPaidByUserId()
-                );
-            }
+            String resolvedExpenseId = expenseId;
+            Expense expense = expenseMetrics.timeStage(ExpenseMetrics.STAGE_TOTAL,
+                    () -> concurrencyRetryPolicy.execute(() -> createExpense(request, resolvedExpenseId)));
 
-            ExpenseResponse response = mapToExpenseResponse(expense);
+            ExpenseResponse response = ExpenseMapper.toResponse(expense);
             return ResponseEntity.status(HttpStatus.CREATED)
                     .body(ApiResponse.success("Expense created successfully", response));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(ApiResponse.error(e.getMessage()));
+        } catch (DataIntegrityViolationException e) {
+            // No pre-check query: a duplicate key or expense id only shows up as a unique violation at commit
+            return resolveDuplicate(request, idempotencyKey, requestHash, e);
+        }
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<BatchExpenseResponse>> createExpenses(
+            @Valid @RequestBody BatchCreateExpenseRequest request) {
+        List<BatchExpenseItemResult> results = concurrencyRetryPolicy.execute(
+                () -> expenseBatchService.createExpenses(request.getExpenses()));
+        int succeeded = (int) results.stream().filter(BatchExpenseItemResult::isSuccess).count();
+
+        BatchExpenseResponse response = BatchExpenseResponse.builder()
+                .total(results.size())
+                .succeeded(succeeded)
+                .failed(results.size() - succeeded)
+                .results(results)
+                .build();
+        if (succeeded == 0) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.<BatchExpenseResponse>builder()
+                            .success(false)
+                            .message("No expenses created")
+                            .data(response)
+                            .build());
+        }
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success(succeeded + " of " + results.size() + " expenses created", response));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<CursorPage<ExpenseResponse>>> searchExpenses(
+            ExpenseSearchRequest request,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = Pagination.DEFAULT_LIMIT) int limit) {
+        try {
+            CursorPage<ExpenseResponse> expenses = expenseQueryService.searchExpenses(request, cursor, limit);
+            return ResponseEntity.ok(ApiResponse.success(expenses));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
         }
     }
 
     @GetMapping("/{expenseId}")
     public ResponseEntity<ApiResponse<ExpenseResponse>> getExpense(@PathVariable String expenseId) {
         try {
-            Expense expense = expenseService.getExpenseById(expenseId);
-            ExpenseResponse response = mapToExpenseResponse(expense);
+            ExpenseResponse response = expenseQueryService.getExpense(expenseId);
             return ResponseEntity.ok(ApiResponse.success(response));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -85,20 +124,60 @@ public class ExpenseController {
         }
     }
 
+    @PutMapping("/{expenseId}")
+    public ResponseEntity<ApiResponse<ExpenseResponse>> updateExpense(
+            @PathVariable String expenseId,
+            @Valid @RequestBody CreateExpenseRequest request) {
+        try {
+            if (request.getExpenseId() != null && !request.getExpenseId().isEmpty()
+                    && !request.getExpenseId().equals(expenseId)) {
+                throw new IllegalArgumentException("expenseId in the body does not match the path");
+            }
+            // Checked up front: the update's own lookup throws the same IllegalArgumentException as a bad request
+            if (!expenseService.expenseExists(expenseId)) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.error("Expense not found with expenseId: " + expenseId));
+            }
+
+            Expense expense = concurrencyRetryPolicy.execute(() -> updateExpense(request, expenseId));
+
+            ExpenseResponse response = ExpenseMapper.toResponse(expense);
+            return ResponseEntity.ok(ApiResponse.success("Expense updated successfully", response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/{expenseId}")
+    public ResponseEntity<ApiResponse<Void>> deleteExpense(@PathVariable String expenseId) {
+        try {
+            concurrencyRetryPolicy.execute(() -> {
+                expenseService.deleteExpense(expenseId);
+                return null;
+            });
+            return ResponseEntity.ok(ApiResponse.success("Expense deleted successfully", null));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     @GetMapping
-    public ResponseEntity<ApiResponse<List<ExpenseResponse>>> getAllExpenses() {
-        List<ExpenseResponse> expenses = expenseService.getAllExpenses().stream()
-                .map(this::mapToExpenseResponse)
-                .collect(Collectors.toList());
+    public ResponseEntity<ApiResponse<CursorPage<ExpenseResponse>>> getAllExpenses(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = Pagination.DEFAULT_LIMIT) int limit) {
+        CursorPage<ExpenseResponse> expenses = expenseQueryService.getExpenses(cursor, limit);
         return ResponseEntity.ok(ApiResponse.success(expenses));
     }
 
     @GetMapping("/group/{groupId}")
-    public ResponseEntity<ApiResponse<List<ExpenseResponse>>> getExpensesByGroup(@PathVariable String groupId) {
+    public ResponseEntity<ApiResponse<CursorPage<ExpenseResponse>>> getExpensesByGroup(
+            @PathVariable String groupId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = Pagination.DEFAULT_LIMIT) int limit) {
         try {
-            List<ExpenseResponse> expenses = expenseService.getExpensesByGroup(groupId).stream()
-                    .map(this::mapToExpenseResponse)
-                    .collect(Collectors.toList());
+            CursorPage<ExpenseResponse> expenses = expenseQueryService.getExpensesByGroup(groupId, cursor, limit);
             return ResponseEntity.ok(ApiResponse.success(expenses));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -107,11 +186,12 @@ public class ExpenseController {
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<ApiResponse<List<ExpenseResponse>>> getExpensesByUser(@PathVariable String userId) {
+    public ResponseEntity<ApiResponse<CursorPage<ExpenseResponse>>> getExpensesByUser(
+            @PathVariable String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = Pagination.DEFAULT_LIMIT) int limit) {
         try {
-            List<ExpenseResponse> expenses = expenseService.getExpensesByUser(userId).stream()
-                    .map(this::mapToExpenseResponse)
-                    .collect(Collectors.toList());
+            CursorPage<ExpenseResponse> expenses = expenseQueryService.getExpensesByUser(userId, cursor, limit);
             return ResponseEntity.ok(ApiResponse.success(expenses));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -119,66 +199,96 @@ public class ExpenseController {
         }
     }
 
-    private List<Split> createSplits(CreateExpenseRequest request) {
-        ExpenseSplitType splitType = request.getSplitType();
-        ExpenseSplit expenseSplit = splitFactory.getSplitObject(splitType);
-
-        List<Split> splits = new ArrayList<>();
-
-        if (splitType == ExpenseSplitType.EQUAL) {
-            if (request.getUserIds() == null || request.getUserIds().isEmpty()) {
-                throw new IllegalArgumentException("User IDs are required for EQUAL split");
-            }
-            List<User> users = request.getUserIds().stream()
-                    .map(userService::getUserById)
-                    .collect(Collectors.toList());
-            splits = expenseSplit.validateAndGetSplits(users, null, request.getExpenseAmount());
-        } else {
-            if (request.getSplits() == null || request.getSplits().isEmpty()) {
-                throw new IllegalArgumentException("Split details are required for " + splitType + " split");
+    private ResponseEntity<ApiResponse<ExpenseResponse>> resolveDuplicate(
+            CreateExpenseRequest request, String idempotencyKey, String requestHash,
+            DataIntegrityViolationException e) {
+        Optional<IdempotencyRecord> record = idempotencyKey != null
+                ? idempotencyService.findByKey(idempotencyKey)
+                : Optional.empty();
+        if (record.isPresent()) {
+            if (!record.get().getRequestHash().equals(requestHash)) {
+                return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                        .body(ApiResponse.error(IdempotencyService.HEADER + " " + idempotencyKey
+                                + " was already used for a different request"));
             }
-            
-            if (splitType == ExpenseSplitType.PERCENTAGE) {
-                List<User> users = request.getSplits().stream()
-                        .map(split -> userService.getUserById(split.getUserId()))
-                        .collect(Collectors.toList());
-                List<Double> percentages = request.getSplits().stream()
-                        .map(SplitDetail::getAmount)
-                        .collect(Collectors.toList());
-                splits = expenseSplit.validateAndGetSplits(users, percentages, request.getExpenseAmount());
-            } else {
-                // UNEQUAL or EXACT
-                for (SplitDetail splitDetail : request.getSplits()) {
-                    User user = userService.getUserById(splitDetail.getUserId());
-                    splits.add(new Split(user, splitDetail.getAmount()));
-                }
-                expenseSplit.validateSplitRequest(splits, request.getExpenseAmount());
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .header(IdempotencyService.REPLAYED_HEADER, "true")
+                    .body(ApiResponse.success("Expense created successfully",
+                            idempotencyService.readResponse(record.get())));
+        }
+        // Other constraint violations (a concurrent user or balance row, for example) are not duplicates
+        if (request.getExpenseId() != null && !request.getExpenseId().isEmpty()
+                && violates(e, Expense.EXPENSE_ID_CONSTRAINT)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Expense with expenseId " + request.getExpenseId() + " already exists"));
+        }
+        throw e;
+    }
+
+    private static boolean violates(DataIntegrityViolationException e, String constraintName) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName().toLowerCase(Locale.ROOT).contains(constraintName);
             }
         }
+        // No name extracted; H2 and most drivers still quote the constraint in the message
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains(constraintName);
+    }
 
-        return splits;
+    private Expense createExpense(CreateExpenseRequest request, String expenseId) {
+        List<Split> splits = expenseMetrics.timeStage(ExpenseMetrics.STAGE_BUILD_SPLITS, () -> createSplits(request));
+
+        return expenseMetrics.timeStage(ExpenseMetrics.STAGE_TRANSACTION, () -> saveExpense(request, expenseId, splits));
     }
 
-    private ExpenseResponse mapToExpenseResponse(Expense expense) {
-        List<SplitDetail> splitDetails = expense.getSplits() != null
-                ? expense.getSplits().stream()
-                        .map(split -> SplitDetail.builder()
-                                .userId(split.getUser().getUserId())
-                                .amount(split.getAmountOwe())
-                                .build())
-                        .collect(Collectors.toList())
-                : List.of();
-
-        String groupId = expense.getGroup() != null ? expense.getGroup().getGroupId() : null;
-
-        return ExpenseResponse.builder()
-                .expenseId(expense.getExpenseId())
-                .description(expense.getDescription())
-                .expenseAmount(expense.getExpenseAmount())
-                .paidByUserId(expense.getPaidBy().getUserId())
-                .splitType(expense.getSplitType())
-                .splits(splitDetails)
-                .groupId(groupId)
-                .build();
+    private Expense saveExpense(CreateExpenseRequest request, String expenseId, List<Split> splits) {
+        if (request.getGroupId() != null && !request.getGroupId().isEmpty()) {
+            com.example.splitwise.entities.Group group = groupService.getGroupById(request.getGroupId());
+            return expenseService.createExpenseWithGroup(
+                    expenseId,
+                    request.getDescription(),
+                    expenseService.toExpenseAmount(request.getExpenseAmount()),
+                    splits,
+                    request.getSplitType(),
+                    request.getPaidByUserId(),
+                    group,
+                    request.getOccurredAt()
+            );
+        }
+        return expenseService.createExpense(
+                expenseId,
+                request.getDescription(),
+                expenseService.toExpenseAmount(request.getExpenseAmount()),
+                splits,
+                request.getSplitType(),
+                request.getPaidByUserId(),
+                request.getOccurredAt()
+        );
+    }
+
+    private Expense updateExpense(CreateExpenseRequest request, String expenseId) {
+        // Not timed: the expense stage metrics describe creation only
+        List<Split> splits = createSplits(request);
+        com.example.splitwise.entities.Group group = request.getGroupId() != null && !request.getGroupId().isEmpty()
+                ? groupService.getGroupById(request.getGroupId())
+                : null;
+
+        return expenseService.updateExpense(
+                expenseId,
+                request.getDescription(),
+                expenseService.toExpenseAmount(request.getExpenseAmount()),
+                splits,
+                request.getSplitType(),
+                request.getPaidByUserId(),
+                group,
+                request.getOccurredAt()
+        );
+    }
+
+    private List<Split> createSplits(CreateExpenseRequest request) {
+        // One IN query for payer and participants; the payer lookup in the service then hits the request identity map
+        Map<String, User> users = userService.getUsersByIds(expenseService.collectUserIds(request));
+        return expenseService.buildSplits(request, users::get);
     }
 }
@@ -0,0 +1,50 @@
+package com.example.splitwise.controller;
+
+import com.example.splitwise.enums.DataFormat;
+import com.example.splitwise.service.ExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.OutputStream;
+import java.util.function.BiConsumer;
+
+// Streamed downloads: the body is written while the rows are read, never built in memory first
+@RestController
+@RequestMapping("/api/exports")
+@RequiredArgsConstructor
+public class ExportController {
+
+    private final ExportService exportService;
+
+    @GetMapping("/expenses")
+    public ResponseEntity<StreamingResponseBody> exportExpenses(
+            @RequestParam(defaultValue = "NDJSON") DataFormat format) {
+        return stream("expenses", format, exportService::exportExpenses);
+    }
+
+    @GetMapping("/balance-sheets")
+    public ResponseEntity<StreamingResponseBody> exportBalanceSheets(
+            @RequestParam(defaultValue = "NDJSON") DataFormat format) {
+        return stream("balance-sheets", format, exportService::exportBalanceSheets);
+    }
+
+    @GetMapping("/pairwise-balances")
+    public ResponseEntity<StreamingResponseBody> exportPairwiseBalances(
+            @RequestParam(defaultValue = "NDJSON") DataFormat format) {
+        return stream("pairwise-balances", format, exportService::exportPairwiseBalances);
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(String name, DataFormat format,
+                                                         BiConsumer<DataFormat, OutputStream> exporter) {
+        StreamingResponseBody body = out -> exporter.accept(format, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + name + "." + format.getFileExtension() + "\"")
+                .body(body);
+    }
+}
@@ -2,17 +2,29 @@ package com.example.splitwise.controller;
 
 import com.example.splitwise.dto.ApiResponse;
 import com.example.splitwise.dto.CreateGroupRequest;
+import com.example.splitwise.dto.CursorPage;
+import com.example.splitwise.dto.GroupBalancesResponse;
 import com.example.splitwise.dto.GroupResponse;
+import com.example.splitwise.dto.GroupSettlementResponse;
+import com.example.splitwise.dto.SettlementTransfer;
+import com.example.splitwise.dto.SpendingResponse;
 import com.example.splitwise.entities.Group;
+import com.example.splitwise.enums.RollupGranularity;
+import com.example.splitwise.enums.RollupScope;
 import com.example.splitwise.service.GroupService;
+import com.example.splitwise.service.SettlementService;
+import com.example.splitwise.service.SpendingRollupService;
+import com.example.splitwise.util.Pagination;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/groups")
@@ -20,6 +32,8 @@ import java.util.stream.Collectors;
 public class GroupController {
 
     private final GroupService groupService;
+    private final SettlementService settlementService;
+    private final SpendingRollupService spendingRollupService;
 
     @PostMapping
     public ResponseEntity<ApiResponse<GroupResponse>> createGroup(@Valid @RequestBody CreateGroupRequest request) {
@@ -51,13 +65,46 @@ public class GroupController {
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<GroupResponse>>> getAllGroups() {
-        List<GroupResponse> groups = groupService.getAllGroups().stream()
-                .map(this::mapToGroupResponse)
-                .collect(Collectors.toList());
+    public ResponseEntity<ApiResponse<CursorPage<GroupResponse>>> getAllGroups(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = Pagination.DEFAULT_LIMIT) int limit) {
+        CursorPage<Group> page = groupService.getGroups(cursor, limit);
+        // One roster query for the whole page rather than one per group
+        Map<String, List<String>> memberIdsByGroupId = groupService.getMemberUserIds(page.getItems());
+        CursorPage<GroupResponse> groups = page.map(group -> mapToGroupResponse(group,
+                memberIdsByGroupId.getOrDefault(group.getGroupId(), List.of())));
         return ResponseEntity.ok(ApiResponse.success(groups));
     }
 
+    @GetMapping("/{groupId}/balances")
+    public ResponseEntity<ApiResponse<GroupBalancesResponse>> getBalances(@PathVariable String groupId) {
+        try {
+            GroupBalancesResponse response = GroupBalancesResponse.builder()
+                    .groupId(groupId)
+                    .balances(settlementService.getPairwiseBalances(groupId))
+                    .build();
+            return ResponseEntity.ok(ApiResponse.success(response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{groupId}/settlements")
+    public ResponseEntity<ApiResponse<GroupSettlementResponse>> getSettlements(@PathVariable String groupId) {
+        try {
+            List<SettlementTransfer> transfers = settlementService.getSettlements(groupId);
+            GroupSettlementResponse response = GroupSettlementResponse.builder()
+                    .groupId(groupId)
+                    .transfers(transfers)
+                    .build();
+            return ResponseEntity.ok(ApiResponse.success(response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     @PostMapping("/{groupId}/members/{userId}")
     public ResponseEntity<ApiResponse<GroupResponse>> addMember(
             @PathVariable String groupId,
@@ -86,13 +133,28 @@ public class GroupController {
         }
     }
 
+    @GetMapping("/{groupId}/spending")
+    public ResponseEntity<ApiResponse<SpendingResponse>> getSpending(
+            @PathVariable String groupId,
+            @RequestParam(defaultValue = "MONTH") RollupGranularity granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            SpendingResponse response = spendingRollupService.getSpending(
+                    RollupScope.GROUP, groupId, granularity, from, to);
+            return ResponseEntity.ok(ApiResponse.success(response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     private GroupResponse mapToGroupResponse(Group group) {
-        List<String> memberIds = group.getMembers() != null
-                ? group.getMembers().stream()
-                        .map(com.example.splitwise.entities.User::getUserId)
-                        .collect(Collectors.toList())
-                : List.of();
+        // Member ids come from the join table, so the roster is never loaded as entities
+        return mapToGroupResponse(group, groupService.getMemberUserIds(group));
+    }
 
+    private GroupResponse mapToGroupResponse(Group group, List<String> memberIds) {
         return GroupResponse.builder()
                 .groupId(group.getGroupId())
                 .groupName(group.getGroupName())
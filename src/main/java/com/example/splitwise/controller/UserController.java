@@ -2,17 +2,23 @@ package com.example.splitwise.controller;
 
 import com.example.splitwise.dto.ApiResponse;
 import com.example.splitwise.dto.CreateUserRequest;
+import com.example.splitwise.dto.CursorPage;
+import com.example.splitwise.dto.SpendingResponse;
 import com.example.splitwise.dto.UserResponse;
 import com.example.splitwise.entities.User;
+import com.example.splitwise.enums.RollupGranularity;
+import com.example.splitwise.enums.RollupScope;
+import com.example.splitwise.service.SpendingRollupService;
 import com.example.splitwise.service.UserService;
+import com.example.splitwise.util.Pagination;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-import java.util.stream.Collectors;
+import java.time.LocalDate;
 
 @RestController
 @RequestMapping("/api/users")
@@ -20,6 +26,7 @@ import java.util.stream.Collectors;
 public class UserController {
 
     private final UserService userService;
+    private final SpendingRollupService spendingRollupService;
 
     @PostMapping
     public ResponseEntity<ApiResponse<UserResponse>> createUser(@Valid @RequestBody CreateUserRequest request) {
@@ -52,10 +59,11 @@ public class UserController {
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<UserResponse>>> getAllUsers() {
-        List<UserResponse> users = userService.getAllUsers().stream()
-                .map(this::mapToUserResponse)
-                .collect(Collectors.toList());
+    public ResponseEntity<ApiResponse<CursorPage<UserResponse>>> getAllUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = Pagination.DEFAULT_LIMIT) int limit) {
+        CursorPage<UserResponse> users = userService.getUsers(cursor, limit)
+                .map(this::mapToUserResponse);
         return ResponseEntity.ok(ApiResponse.success(users));
     }
 
@@ -89,6 +97,22 @@ public class UserController {
         }
     }
 
+    @GetMapping("/{userId}/spending")
+    public ResponseEntity<ApiResponse<SpendingResponse>> getSpending(
+            @PathVariable String userId,
+            @RequestParam(defaultValue = "MONTH") RollupGranularity granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            SpendingResponse response = spendingRollupService.getSpending(
+                    RollupScope.USER, userId, granularity, from, to);
+            return ResponseEntity.ok(ApiResponse.success(response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     private UserResponse mapToUserResponse(User user) {
         return UserResponse.builder()
                 .userId(user.getUserId())
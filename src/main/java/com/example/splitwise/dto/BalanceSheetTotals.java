@@ -0,0 +1,19 @@
+package com.example.splitwise.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A balance sheet without its per-counterparty breakdown, which is exported separately as pairwise balances
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceSheetTotals {
+    private String userId;
+    private Double totalPayment;
+    private Double totalYourExpense;
+    private Double totalYouGetBack;
+    private Double totalYouOwe;
+}
@@ -0,0 +1,23 @@
+package com.example.splitwise.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchCreateExpenseRequest {
+
+    @NotEmpty(message = "Expenses are required")
+    @Size(max = 1000, message = "At most 1000 expenses can be created per batch")
+    @Valid
+    private List<CreateExpenseRequest> expenses;
+}
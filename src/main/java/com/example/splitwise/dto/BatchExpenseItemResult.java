@@ -0,0 +1,17 @@
+package com.example.splitwise.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchExpenseItemResult {
+    private int index;
+    private String expenseId;
+    private boolean success;
+    private String message;
+}
@@ -9,6 +9,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
 import java.util.List;
 
 @Data
@@ -37,5 +38,7 @@ public class CreateExpenseRequest {
     private List<String> userIds; // Required for EQUAL split
     
     private String groupId; // Optional, if expense is part of a group
+
+    private Instant occurredAt; // Optional, defaults to the creation time
 }
 
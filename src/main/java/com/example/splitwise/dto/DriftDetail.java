@@ -0,0 +1,18 @@
+package com.example.splitwise.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DriftDetail {
+    private String userId;
+    private String otherUserId; // Set for pairwise balance fields, null for sheet totals
+    private String field;
+    private Double expected;
+    private Double actual;
+}
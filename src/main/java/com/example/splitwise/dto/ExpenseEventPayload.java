@@ -0,0 +1,21 @@
+package com.example.splitwise.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+// Snapshot of an expense carried by outbox events; amounts are in minor units (cents)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExpenseEventPayload {
+    private String expenseId;
+    private String groupId;
+    private String paidByUserId;
+    private long expenseAmount;
+    private Map<String, Long> amountOweByUserId;
+}
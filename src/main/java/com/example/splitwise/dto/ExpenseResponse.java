@@ -6,6 +6,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
 import java.util.List;
 
 @Data
@@ -20,5 +21,7 @@ public class ExpenseResponse {
     private ExpenseSplitType splitType;
     private List<SplitDetail> splits;
     private String groupId;
+    private Instant createdAt;
+    private Instant occurredAt;
 }
 
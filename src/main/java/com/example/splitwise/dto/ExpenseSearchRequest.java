@@ -0,0 +1,24 @@
+package com.example.splitwise.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// Query parameters of GET /api/expenses/search; every field is optional
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExpenseSearchRequest {
+    private Instant from; // Inclusive, matched against occurredAt
+    private Instant to; // Exclusive
+    private Double minAmount;
+    private Double maxAmount;
+    private String groupId;
+    private String paidByUserId;
+    private String participantUserId;
+    private String descriptionPrefix;
+}
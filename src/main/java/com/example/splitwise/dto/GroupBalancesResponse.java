@@ -0,0 +1,17 @@
+package com.example.splitwise.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GroupBalancesResponse {
+    private String groupId;
+    private List<PairBalance> balances; // Sparse: one entry per pair of members with a non-zero net debt
+}
@@ -0,0 +1,33 @@
+package com.example.splitwise.dto;
+
+import com.example.splitwise.enums.DataFormat;
+import com.example.splitwise.enums.ImportStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportReport {
+    private String jobId;
+    private ImportStatus status;
+    private DataFormat format;
+    private String sourceName;
+    private int chunkSize;
+    private long linesCommitted;
+    private long expensesImported;
+    private long rowsRejected;
+    private double expensesPerSecond; // Over the current run
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant updatedAt;
+    private Instant finishedAt;
+    private String message;
+    private List<ImportRejectionDetail> rejections; // The first rejected rows by line, capped
+}
@@ -0,0 +1,16 @@
+package com.example.splitwise.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PairBalance {
+    private String fromUserId; // Owes
+    private String toUserId;
+    private Double amount;
+}
@@ -0,0 +1,33 @@
+package com.example.splitwise.dto;
+
+import com.example.splitwise.enums.ReconciliationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReconciliationReport {
+    private String jobId;
+    private ReconciliationStatus status;
+    private boolean repair;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private long totalSplits;
+    private long processedSplits;
+    private double splitsPerSecond;
+    private long sheetsChecked;
+    private long sheetsWithDrift;
+    private long balancesWithDrift;
+    private long sheetsRepaired;
+    private long sheetsSkipped; // Changed by a concurrent write after the check, so left for the next run
+    private long balancesRepaired;
+    private String message;
+    private List<DriftDetail> drift; // The first drifted fields found, capped
+}
@@ -0,0 +1,18 @@
+package com.example.splitwise.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RollupBackfillReport {
+    private long expensesScanned;
+    private long splitsScanned;
+    private long rollupsChecked;
+    private long rollupsCorrected;
+    private long durationMillis;
+}
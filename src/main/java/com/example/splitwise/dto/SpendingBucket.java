@@ -0,0 +1,19 @@
+package com.example.splitwise.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SpendingBucket {
+    private LocalDate periodStart;
+    private Double shareAmount;
+    private Double paidAmount;
+    private long expenseCount;
+}
@@ -0,0 +1,24 @@
+package com.example.splitwise.dto;
+
+import com.example.splitwise.enums.RollupGranularity;
+import com.example.splitwise.enums.RollupScope;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SpendingResponse {
+    private RollupScope scope;
+    private String scopeId;
+    private RollupGranularity granularity;
+    private LocalDate from;
+    private LocalDate to;
+    private List<SpendingBucket> buckets; // Sparse: periods without spend are left out
+}
@@ -7,26 +7,44 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "expenses")
+@Table(name = "expenses", uniqueConstraints = {
+        @UniqueConstraint(name = Expense.EXPENSE_ID_CONSTRAINT, columnNames = "expenseId")
+}, indexes = {
+        @Index(name = "idx_expenses_group_id", columnList = "group_id, id"),
+        @Index(name = "idx_expenses_paid_by_id", columnList = "paid_by_user_id, id"),
+        // Search walks (occurredAt desc, id desc), optionally within one group or payer
+        @Index(name = "idx_expenses_occurred_at", columnList = "occurredAt, id"),
+        @Index(name = "idx_expenses_group_occurred_at", columnList = "group_id, occurredAt, id"),
+        @Index(name = "idx_expenses_paid_by_occurred_at", columnList = "paid_by_user_id, occurredAt, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Expense {
 
+    public static final String EXPENSE_ID_CONSTRAINT = "uk_expenses_expense_id";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expense_seq")
+    @SequenceGenerator(name = "expense_seq", sequenceName = "expense_seq", allocationSize = 50)
     private Long id;
 
-    @Column(unique = true, nullable = false)
+    // Concurrent edits and deletes of one expense would otherwise both reverse the same old splits
+    @Version
+    private Long version;
+
+    @Column(nullable = false)
     private String expenseId;
 
+    // Minor units (cents)
     @Column(nullable = false)
-    private Double expenseAmount;
+    private long expenseAmount;
 
     @Column(nullable = false)
     private String description;
@@ -46,7 +64,14 @@ public class Expense {
     @JoinColumn(name = "group_id")
     private Group group;
 
-    public Expense(String expenseId, Double expenseAmount, String description, 
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    // When the expense happened, as given by the client; defaults to createdAt
+    @Column(nullable = false)
+    private Instant occurredAt;
+
+    public Expense(String expenseId, long expenseAmount, String description, 
                    User paidBy, ExpenseSplitType splitType, List<Split> splits) {
         this.expenseId = expenseId;
         this.expenseAmount = expenseAmount;
@@ -6,8 +6,9 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 @Entity
 @Table(name = "groups")
@@ -31,9 +32,10 @@ public class Group {
     @JoinTable(
             name = "group_members",
             joinColumns = @JoinColumn(name = "group_id"),
-            inverseJoinColumns = @JoinColumn(name = "user_id")
+            inverseJoinColumns = @JoinColumn(name = "user_id"),
+            uniqueConstraints = @UniqueConstraint(name = "uk_group_members", columnNames = {"group_id", "user_id"})
     )
-    private List<User> members;
+    private Set<User> members;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "created_by_user_id", nullable = false)
@@ -42,19 +44,13 @@ public class Group {
     @OneToMany(mappedBy = "group", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Expense> expenses;
 
+    // Only for groups being built in memory; members of a persisted group are changed through GroupRepository,
+    // which touches the one join row instead of loading the roster
     public void addMember(User user) {
         if (members == null) {
-            members = new ArrayList<>();
-        }
-        if (!members.contains(user)) {
-            members.add(user);
-        }
-    }
-
-    public void removeMember(User user) {
-        if (members != null) {
-            members.remove(user);
+            members = new LinkedHashSet<>();
         }
+        members.add(user);
     }
 }
 
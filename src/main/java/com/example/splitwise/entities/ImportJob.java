@@ -0,0 +1,76 @@
+package com.example.splitwise.entities;
+
+import com.example.splitwise.enums.DataFormat;
+import com.example.splitwise.enums.ImportStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// A bulk import and its checkpoint. linesCommitted only moves in the transaction that commits a chunk,
+// so a failed or interrupted import resumes right after the last chunk that reached the database.
+@Entity
+@Table(name = "import_jobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "import_job_seq")
+    @SequenceGenerator(name = "import_job_seq", sequenceName = "import_job_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(unique = true, nullable = false)
+    private String jobId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private DataFormat format;
+
+    private String sourceName;
+
+    @Column(nullable = false, length = 1024)
+    private String sourcePath;
+
+    // Checked on resume, so a job is never continued against a different file
+    @Column(nullable = false)
+    private long fileSize;
+
+    @Column(nullable = false)
+    private int chunkSize;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ImportStatus status;
+
+    // Physical lines of the file, header included, whose records are committed or rejected
+    @Column(nullable = false)
+    private long linesCommitted;
+
+    @Column(nullable = false)
+    private long expensesImported;
+
+    @Column(nullable = false)
+    private long rowsRejected;
+
+    // Imported by earlier runs of a resumed job, so throughput covers only the current run
+    @Column(nullable = false)
+    private long expensesBeforeRun;
+
+    @Column(length = 1000)
+    private String message;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    private Instant startedAt;
+
+    private Instant updatedAt;
+
+    private Instant finishedAt;
+}
@@ -0,0 +1,34 @@
+package com.example.splitwise.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A record of an import file that was not imported, and why; written with the chunk it belonged to
+@Entity
+@Table(name = "import_rejections", indexes = {
+        @Index(name = "idx_import_rejections_job_line", columnList = "jobId, lineNumber")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportRejection {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "import_rejection_seq")
+    @SequenceGenerator(name = "import_rejection_seq", sequenceName = "import_rejection_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String jobId;
+
+    // First line of the record in the file
+    @Column(nullable = false)
+    private long lineNumber;
+
+    @Column(nullable = false, length = 1000)
+    private String reason;
+}
@@ -0,0 +1,47 @@
+package com.example.splitwise.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// One signed balance delta per split: the participant owes the payer `amount` minor units
+@Entity
+@Table(name = "ledger_entries", indexes = {
+        @Index(name = "idx_ledger_entries_applied", columnList = "applied, id"),
+        @Index(name = "idx_ledger_entries_expense", columnList = "expenseId"),
+        @Index(name = "idx_ledger_entries_created_at", columnList = "createdAt, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ledger_seq")
+    @SequenceGenerator(name = "ledger_seq", sequenceName = "ledger_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String expenseId;
+
+    @Column(nullable = false)
+    private String payerUserId;
+
+    @Column(nullable = false)
+    private String participantUserId;
+
+    // Minor units (cents), negative when reversing an earlier entry
+    @Column(nullable = false)
+    private long amount;
+
+    @Column(nullable = false)
+    private boolean applied;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,53 @@
+package com.example.splitwise.entities;
+
+import com.example.splitwise.enums.OutboxEventType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// Side effect recorded in the same transaction as the write that caused it, delivered later by OutboxDispatcher
+@Entity
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_events_dispatched", columnList = "dispatched, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_seq")
+    @SequenceGenerator(name = "outbox_seq", sequenceName = "outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OutboxEventType eventType;
+
+    @Column(nullable = false)
+    private String aggregateId;
+
+    @Lob
+    @Column(nullable = false)
+    private String payload; // JSON
+
+    @Column(nullable = false)
+    private boolean dispatched;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    private String lastError;
+
+    private Instant nextAttemptAt; // null = due now; set after a failed delivery to back off retries
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    private Instant dispatchedAt;
+}
@@ -0,0 +1,40 @@
+package com.example.splitwise.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Net debt between two users, stored once per pair. Rows are written only through
+// PairwiseBalanceRepository.increment, so updating a pair never loads any other pair of either user.
+@Entity
+@Table(name = "pairwise_balances", indexes = {
+        @Index(name = "idx_pairwise_balances_high_user", columnList = "highUserId")
+})
+@IdClass(PairwiseBalanceId.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PairwiseBalance {
+
+    @Id
+    private String lowUserId;
+
+    @Id
+    private String highUserId;
+
+    // What highUserId owes lowUserId in minor units (cents); negative when lowUserId owes highUserId
+    @Column(nullable = false)
+    private long amount;
+
+    public String counterpartyOf(String userId) {
+        return lowUserId.equals(userId) ? highUserId : lowUserId;
+    }
+
+    // Positive when the counterparty owes userId, negative when userId owes the counterparty
+    public long owedTo(String userId) {
+        return lowUserId.equals(userId) ? amount : -amount;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.splitwise.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.Comparator;
+
+// Key of a pairwise balance: the two user ids in ascending order, so each pair has exactly one row
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PairwiseBalanceId implements Serializable, Comparable<PairwiseBalanceId> {
+
+    private static final Comparator<PairwiseBalanceId> ORDER = Comparator
+            .comparing(PairwiseBalanceId::getLowUserId)
+            .thenComparing(PairwiseBalanceId::getHighUserId);
+
+    private String lowUserId;
+    private String highUserId;
+
+    public static PairwiseBalanceId of(String userId, String otherUserId) {
+        return userId.compareTo(otherUserId) < 0
+                ? new PairwiseBalanceId(userId, otherUserId)
+                : new PairwiseBalanceId(otherUserId, userId);
+    }
+
+    // The change to this pair's stored amount when debtorUserId comes to owe the other user amount more
+    public long debtDelta(String debtorUserId, long amount) {
+        return highUserId.equals(debtorUserId) ? amount : -amount;
+    }
+
+    @Override
+    public int compareTo(PairwiseBalanceId other) {
+        return ORDER.compare(this, other);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.splitwise.entities;
+
+import com.example.splitwise.enums.RollupGranularity;
+import com.example.splitwise.enums.RollupScope;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// Spend of one user or group in one day or month. Maintained by increments through
+// SpendingRollupRepository.increment as expenses are written, so reads never touch expenses or splits.
+@Entity
+@Table(name = "spending_rollups")
+@IdClass(SpendingRollupId.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SpendingRollup {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private RollupScope scopeType;
+
+    @Id
+    private String scopeId; // userId or groupId
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private RollupGranularity granularity;
+
+    @Id
+    private LocalDate periodStart; // The day, or the first day of the month
+
+    // Minor units (cents). For a user: their shares and what they paid. For a group: the total spent, in both.
+    @Column(nullable = false)
+    private long shareAmount;
+
+    @Column(nullable = false)
+    private long paidAmount;
+
+    // Expenses the user has a share in, or expenses of the group
+    @Column(nullable = false)
+    private long expenseCount;
+
+    public SpendingRollupId id() {
+        return new SpendingRollupId(scopeType, scopeId, granularity, periodStart);
+    }
+
+    public void add(long share, long paid, long count) {
+        shareAmount += share;
+        paidAmount += paid;
+        expenseCount += count;
+    }
+
+    public boolean isEmpty() {
+        return shareAmount == 0 && paidAmount == 0 && expenseCount == 0;
+    }
+}
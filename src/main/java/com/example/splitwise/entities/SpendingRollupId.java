@@ -0,0 +1,33 @@
+package com.example.splitwise.entities;
+
+import com.example.splitwise.enums.RollupGranularity;
+import com.example.splitwise.enums.RollupScope;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Comparator;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpendingRollupId implements Serializable, Comparable<SpendingRollupId> {
+
+    private static final Comparator<SpendingRollupId> ORDER = Comparator
+            .comparing(SpendingRollupId::getScopeType)
+            .thenComparing(SpendingRollupId::getScopeId)
+            .thenComparing(SpendingRollupId::getGranularity)
+            .thenComparing(SpendingRollupId::getPeriodStart);
+
+    private RollupScope scopeType;
+    private String scopeId;
+    private RollupGranularity granularity;
+    private LocalDate periodStart;
+
+    @Override
+    public int compareTo(SpendingRollupId other) {
+        return ORDER.compare(this, other);
+    }
+}
@@ -7,7 +7,12 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "splits")
+@Table(name = "splits", indexes = {
+        // Covers the per-group aggregates, which read only these columns for each expense
+        @Index(name = "idx_splits_expense_user", columnList = "expense_id, user_id, amountOwe"),
+        // Expense search by participant
+        @Index(name = "idx_splits_user_expense", columnList = "user_id, expense_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -15,21 +20,23 @@ import lombok.NoArgsConstructor;
 public class Split {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "split_seq")
+    @SequenceGenerator(name = "split_seq", sequenceName = "split_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    // Minor units (cents)
     @Column(nullable = false)
-    private Double amountOwe;
+    private long amountOwe;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "expense_id", nullable = false)
     private Expense expense;
 
-    public Split(User user, Double amountOwe) {
+    public Split(User user, long amountOwe) {
         this.user = user;
         this.amountOwe = amountOwe;
     }
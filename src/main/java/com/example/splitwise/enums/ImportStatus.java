@@ -0,0 +1,8 @@
+package com.example.splitwise.enums;
+
+public enum ImportStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,7 @@
+package com.example.splitwise.enums;
+
+public enum OutboxEventType {
+    EXPENSE_CREATED,
+    EXPENSE_UPDATED,
+    EXPENSE_DELETED
+}
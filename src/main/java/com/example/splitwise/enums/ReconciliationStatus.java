@@ -0,0 +1,7 @@
+package com.example.splitwise.enums;
+
+public enum ReconciliationStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,6 @@
+package com.example.splitwise.enums;
+
+public enum RollupGranularity {
+    DAY,
+    MONTH
+}
@@ -0,0 +1,82 @@
+package com.example.splitwise.metrics;
+
+import com.example.splitwise.enums.ExpenseSplitType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+// Meters for the expense creation pipeline, all published under splitwise.expense.*
+@Component
+public class ExpenseMetrics {
+
+    public static final String STAGE_BUILD_SPLITS = "build_splits";
+    public static final String STAGE_VALIDATE = "validate";
+    public static final String STAGE_PERSIST = "persist";
+    public static final String STAGE_LEDGER = "ledger";
+    public static final String STAGE_TRANSACTION = "transaction"; // The service call including flush and commit
+    public static final String STAGE_TOTAL = "total"; // Everything, including optimistic-lock retries
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Timer> stageTimers = new ConcurrentHashMap<>();
+    private final Map<ExpenseSplitType, Counter> createdCounters = new EnumMap<>(ExpenseSplitType.class);
+    private final DistributionSummary participants;
+
+    public ExpenseMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        for (ExpenseSplitType splitType : ExpenseSplitType.values()) {
+            createdCounters.put(splitType, Counter.builder("splitwise.expense.created")
+                    .description("Expenses committed, by split type")
+                    .tag("splitType", splitType.name())
+                    .register(meterRegistry));
+        }
+        this.participants = DistributionSummary.builder("splitwise.expense.participants")
+                .description("Number of splits per committed expense")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public <T> T timeStage(String stage, Supplier<T> work) {
+        return stageTimer(stage).record(work);
+    }
+
+    public void timeStage(String stage, Runnable work) {
+        stageTimer(stage).record(work);
+    }
+
+    // Counted only once the surrounding transaction commits, so rolled back attempts and retries are not included
+    public void recordCreated(ExpenseSplitType splitType, int participantCount) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(splitType, participantCount);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(splitType, participantCount);
+            }
+        });
+    }
+
+    private void record(ExpenseSplitType splitType, int participantCount) {
+        createdCounters.get(splitType).increment();
+        participants.record(participantCount);
+    }
+
+    private Timer stageTimer(String stage) {
+        return stageTimers.computeIfAbsent(stage, name -> Timer.builder("splitwise.expense.stage")
+                .description("Time spent in each stage of expense creation")
+                .tag("stage", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.splitwise.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Registered as hibernate.session_factory.statement_inspector. Hibernate instantiates it itself, so the
+// per-request count lives in a static ThreadLocal that SqlStatementMetricsFilter opens and closes.
+// Plain JdbcTemplate statements never pass through Hibernate, so their callers report them through count().
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> STATEMENTS = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        count();
+        return sql;
+    }
+
+    // One prepared statement, counted once even when it is executed as a JDBC batch, as Hibernate's are
+    public static void count() {
+        int[] count = STATEMENTS.get();
+        if (count != null) {
+            count[0]++;
+        }
+    }
+
+    static void start() {
+        STATEMENTS.set(new int[1]);
+    }
+
+    static int stop() {
+        int[] count = STATEMENTS.get();
+        STATEMENTS.remove();
+        return count != null ? count[0] : 0;
+    }
+}
@@ -1,13 +1,33 @@
 package com.example.splitwise.repository;
 
 import com.example.splitwise.entities.UserExpenseBalanceSheet;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BalanceSheetRepository extends JpaRepository<UserExpenseBalanceSheet, Long> {
+    @EntityGraph(attributePaths = "user")
     Optional<UserExpenseBalanceSheet> findByUser_UserId(String userId);
-}
 
+    @EntityGraph(attributePaths = "user")
+    List<UserExpenseBalanceSheet> findByUser_UserIdIn(Collection<String> userIds);
+
+    @EntityGraph(attributePaths = "user")
+    @Query("select s from UserExpenseBalanceSheet s")
+    List<UserExpenseBalanceSheet> findAllWithUser();
+
+    // Returns managed entities; callers reading the whole table clear the persistence context as they go
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select s from UserExpenseBalanceSheet s join fetch s.user order by s.id")
+    Stream<UserExpenseBalanceSheet> streamAllWithUser();
+}
@@ -1,17 +1,67 @@
 package com.example.splitwise.repository;
 
 import com.example.splitwise.entities.Expense;
+import com.example.splitwise.repository.projection.ExpenseRow;
+import com.example.splitwise.repository.projection.ExpenseSpend;
+import com.example.splitwise.repository.projection.UserAmount;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface ExpenseRepository extends JpaRepository<Expense, Long> {
+public interface ExpenseRepository extends JpaRepository<Expense, Long>, ExpenseRepositoryCustom {
+
+    String EXPENSE_ROW = "select new com.example.splitwise.repository.projection.ExpenseRow(" +
+            "e.id, e.expenseId, e.description, e.expenseAmount, p.userId, e.splitType, g.groupId, " +
+            "e.createdAt, e.occurredAt) " +
+            "from Expense e join e.paidBy p left join e.group g ";
+
+    @EntityGraph(attributePaths = {"paidBy", "group", "splits", "splits.user"})
     Optional<Expense> findByExpenseId(String expenseId);
     boolean existsByExpenseId(String expenseId);
     List<Expense> findByGroup_GroupId(String groupId);
     List<Expense> findByPaidBy_UserId(String userId);
-}
 
+    @Query("select e.expenseId from Expense e where e.expenseId in :expenseIds")
+    List<String> findExistingExpenseIds(@Param("expenseIds") Collection<String> expenseIds);
+
+    @Query(EXPENSE_ROW + "where e.expenseId = :expenseId")
+    Optional<ExpenseRow> findRowByExpenseId(@Param("expenseId") String expenseId);
+
+    @Query(EXPENSE_ROW + "where e.id > :afterId order by e.id")
+    List<ExpenseRow> findRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query(EXPENSE_ROW + "where g.groupId = :groupId and e.id > :afterId order by e.id")
+    List<ExpenseRow> findRowsByGroupAfter(@Param("groupId") String groupId, @Param("afterId") Long afterId,
+                                          Pageable pageable);
+
+    @Query(EXPENSE_ROW + "where p.userId = :userId and e.id > :afterId order by e.id")
+    List<ExpenseRow> findRowsByPaidByAfter(@Param("userId") String userId, @Param("afterId") Long afterId,
+                                           Pageable pageable);
+
+    // Forward-only cursor over every expense in id order, for exports
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(EXPENSE_ROW + "order by e.id")
+    Stream<ExpenseRow> streamRows();
+
+    @Query("select e.paidBy.userId as userId, sum(e.expenseAmount) as amount from Expense e " +
+            "where e.group.groupId = :groupId group by e.paidBy.userId")
+    List<UserAmount> sumPaidByGroup(@Param("groupId") String groupId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.example.splitwise.repository.projection.ExpenseSpend(" +
+            "p.userId, g.groupId, e.occurredAt, e.expenseAmount) " +
+            "from Expense e join e.paidBy p left join e.group g")
+    Stream<ExpenseSpend> streamSpend();
+}
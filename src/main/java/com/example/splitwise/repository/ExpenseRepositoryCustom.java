@@ -0,0 +1,12 @@
+package com.example.splitwise.repository;
+
+import com.example.splitwise.repository.projection.ExpenseRow;
+import com.example.splitwise.util.Pagination;
+
+import java.util.List;
+
+public interface ExpenseRepositoryCustom {
+
+    // Matching rows newest first by (occurredAt, id), starting after the cursor when one is given
+    List<ExpenseRow> search(ExpenseSearchFilter filter, Pagination.TimeCursor after, int maxResults);
+}
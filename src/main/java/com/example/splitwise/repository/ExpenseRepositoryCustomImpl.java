@@ -0,0 +1,93 @@
+package com.example.splitwise.repository;
+
+import com.example.splitwise.entities.Expense;
+import com.example.splitwise.entities.Group;
+import com.example.splitwise.entities.Split;
+import com.example.splitwise.entities.User;
+import com.example.splitwise.repository.projection.ExpenseRow;
+import com.example.splitwise.util.Pagination;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+// Criteria query, since which conditions apply depends on the request. The group, payer and time conditions
+// and the (occurredAt, id) order line up with the expense indexes; amount and description are checked on the
+// rows those indexes yield.
+@RequiredArgsConstructor
+class ExpenseRepositoryCustomImpl implements ExpenseRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<ExpenseRow> search(ExpenseSearchFilter filter, Pagination.TimeCursor after, int maxResults) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ExpenseRow> query = cb.createQuery(ExpenseRow.class);
+        Root<Expense> expense = query.from(Expense.class);
+        Join<Expense, User> paidBy = expense.join("paidBy");
+        Join<Expense, Group> group = expense.join("group", JoinType.LEFT);
+        Path<Instant> occurredAt = expense.get("occurredAt");
+        Path<Long> id = expense.get("id");
+        Path<Long> amount = expense.get("expenseAmount");
+
+        query.select(cb.construct(ExpenseRow.class,
+                id, expense.get("expenseId"), expense.get("description"), amount, paidBy.get("userId"),
+                expense.get("splitType"), group.get("groupId"), expense.get("createdAt"), occurredAt));
+
+        List<Predicate> conditions = new ArrayList<>();
+        if (filter.from() != null) {
+            conditions.add(cb.greaterThanOrEqualTo(occurredAt, filter.from()));
+        }
+        if (filter.to() != null) {
+            conditions.add(cb.lessThan(occurredAt, filter.to()));
+        }
+        if (filter.minAmount() != null) {
+            conditions.add(cb.greaterThanOrEqualTo(amount, filter.minAmount()));
+        }
+        if (filter.maxAmount() != null) {
+            conditions.add(cb.lessThanOrEqualTo(amount, filter.maxAmount()));
+        }
+        if (filter.groupId() != null) {
+            conditions.add(cb.equal(group.get("groupId"), filter.groupId()));
+        }
+        if (filter.paidByUserId() != null) {
+            conditions.add(cb.equal(paidBy.get("userId"), filter.paidByUserId()));
+        }
+        if (filter.participantUserId() != null) {
+            Subquery<Long> participant = query.subquery(Long.class);
+            Root<Split> split = participant.from(Split.class);
+            participant.select(split.get("id")).where(
+                    cb.equal(split.get("expense"), expense),
+                    cb.equal(split.get("user").get("userId"), filter.participantUserId()));
+            conditions.add(cb.exists(participant));
+        }
+        if (filter.descriptionPrefix() != null) {
+            conditions.add(cb.like(expense.get("description"), escapeLike(filter.descriptionPrefix()) + "%", '\\'));
+        }
+        if (after != null) {
+            // The redundant upper bound gives the planner an index range; the OR alone would not
+            conditions.add(cb.lessThanOrEqualTo(occurredAt, after.at()));
+            conditions.add(cb.or(cb.lessThan(occurredAt, after.at()), cb.lessThan(id, after.id())));
+        }
+
+        query.where(conditions.toArray(new Predicate[0]))
+                .orderBy(cb.desc(occurredAt), cb.desc(id));
+        return entityManager.createQuery(query)
+                .setMaxResults(maxResults)
+                .getResultList();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
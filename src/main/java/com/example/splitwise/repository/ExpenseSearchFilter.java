@@ -0,0 +1,9 @@
+package com.example.splitwise.repository;
+
+import java.time.Instant;
+
+// Optional expense search conditions; null fields are not applied. Amounts are in minor units (cents),
+// from is inclusive and to is exclusive.
+public record ExpenseSearchFilter(Instant from, Instant to, Long minAmount, Long maxAmount, String groupId,
+                                  String paidByUserId, String participantUserId, String descriptionPrefix) {
+}
@@ -1,14 +1,48 @@
 package com.example.splitwise.repository;
 
 import com.example.splitwise.entities.Group;
+import com.example.splitwise.repository.projection.GroupMember;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface GroupRepository extends JpaRepository<Group, Long> {
     Optional<Group> findByGroupId(String groupId);
+    List<Group> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
     boolean existsByGroupId(String groupId);
-}
+    List<Group> findByGroupIdIn(Collection<String> groupIds);
+
+    // Membership lookups go through the (group_id, user_id) key of group_members and never load a roster
+
+    @Query("select count(m) > 0 from Group g join g.members m where g.id = :groupId and m.id = :userId")
+    boolean isMember(@Param("groupId") Long groupId, @Param("userId") Long userId);
+
+    @Query("select g.groupId as groupId, m.userId as userId from Group g join g.members m " +
+            "where g.groupId in :groupIds and m.userId in :userIds")
+    List<GroupMember> findMembers(@Param("groupIds") Collection<String> groupIds,
+                                  @Param("userIds") Collection<String> userIds);
 
+    @Query("select m.userId from Group g join g.members m where g.id = :groupId order by m.id")
+    List<String> findMemberUserIds(@Param("groupId") Long groupId);
+
+    // Rosters of a whole page of groups in one query, each in the same order as findMemberUserIds
+    @Query("select g.groupId as groupId, m.userId as userId from Group g join g.members m " +
+            "where g.id in :groupIds order by g.id, m.id")
+    List<GroupMember> findMembersOfGroups(@Param("groupIds") Collection<Long> groupIds);
+
+    @Modifying
+    @Query(value = "insert into group_members (group_id, user_id) values (:groupId, :userId)", nativeQuery = true)
+    int insertMember(@Param("groupId") Long groupId, @Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "delete from group_members where group_id = :groupId and user_id = :userId", nativeQuery = true)
+    int deleteMember(@Param("groupId") Long groupId, @Param("userId") Long userId);
+}
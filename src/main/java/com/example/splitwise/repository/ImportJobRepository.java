@@ -0,0 +1,12 @@
+package com.example.splitwise.repository;
+
+import com.example.splitwise.entities.ImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, Long> {
+    Optional<ImportJob> findByJobId(String jobId);
+}
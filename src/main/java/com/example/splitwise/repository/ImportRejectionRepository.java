@@ -0,0 +1,13 @@
+package com.example.splitwise.repository;
+
+import com.example.splitwise.entities.ImportRejection;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ImportRejectionRepository extends JpaRepository<ImportRejection, Long> {
+    List<ImportRejection> findByJobIdOrderByLineNumberAsc(String jobId, Pageable pageable);
+}
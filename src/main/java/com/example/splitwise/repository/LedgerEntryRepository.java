@@ -0,0 +1,35 @@
+package com.example.splitwise.repository;
+
+import com.example.splitwise.entities.LedgerEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+    List<LedgerEntry> findByAppliedFalseOrderByIdAsc(Pageable pageable);
+    long countByAppliedFalse();
+
+    // Replay candidates of a balance snapshot: everything created from its watermark on, walked by id
+    @Query("select e from LedgerEntry e where e.createdAt >= :from and e.id > :afterId order by e.id")
+    List<LedgerEntry> findCreatedSince(@Param("from") Instant from, @Param("afterId") Long afterId,
+                                       Pageable pageable);
+
+    @Query("select e.id from LedgerEntry e where e.applied = true and e.createdAt >= :from order by e.id")
+    Stream<Long> streamAppliedIdsCreatedSince(@Param("from") Instant from);
+
+    @Query("select e.id from LedgerEntry e where e.applied = false and e.createdAt < :before order by e.id")
+    Stream<Long> streamPendingIdsCreatedBefore(@Param("before") Instant before);
+
+    @Query("select coalesce(max(e.id), 0) from LedgerEntry e where e.applied = true")
+    long findMaxAppliedId();
+
+    @Query("select coalesce(max(e.id), 0) from LedgerEntry e")
+    long findMaxId();
+}
@@ -0,0 +1,32 @@
+package com.example.splitwise.repository;
+
+import com.example.splitwise.entities.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    @Query("select e from OutboxEvent e where e.dispatched = false and e.id > :afterId"
+            + " and (e.nextAttemptAt is null or e.nextAttemptAt <= :now) order by e.id")
+    List<OutboxEvent> findDue(@Param("afterId") Long afterId, @Param("now") Instant now, Pageable pageable);
+
+    Optional<OutboxEvent> findFirstByDispatchedFalseOrderByIdAsc();
+    long countByDispatchedFalse();
+
+    @Modifying
+    @Query("update OutboxEvent e set e.dispatched = true, e.dispatchedAt = :dispatchedAt where e.id in :ids")
+    int markDispatched(@Param("ids") Collection<Long> ids, @Param("dispatchedAt") Instant dispatchedAt);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.dispatched = true and e.dispatchedAt < :cutoff")
+    int deleteDispatchedBefore(@Param("cutoff") Instant cutoff);
+}
@@ -0,0 +1,36 @@
+package com.example.splitwise.repository;
+
+import com.example.splitwise.entities.PairwiseBalance;
+import com.example.splitwise.entities.PairwiseBalanceId;
+import com.example.splitwise.repository.projection.PairNet;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface PairwiseBalanceRepository
+        extends JpaRepository<PairwiseBalance, PairwiseBalanceId>, PairwiseBalanceRepositoryCustom {
+
+    List<PairwiseBalance> findByLowUserIdAndAmountNot(String lowUserId, long amount);
+
+    List<PairwiseBalance> findByHighUserIdAndAmountNot(String highUserId, long amount);
+
+    // Two index lookups, one per side of the pair, instead of an OR that the planner would answer with a scan
+    default List<PairwiseBalance> findNonZeroByUserId(String userId) {
+        List<PairwiseBalance> balances = new ArrayList<>(findByLowUserIdAndAmountNot(userId, 0));
+        balances.addAll(findByHighUserIdAndAmountNot(userId, 0));
+        return balances;
+    }
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.example.splitwise.repository.projection.PairNet(b.lowUserId, b.highUserId, b.amount) " +
+            "from PairwiseBalance b where b.amount <> 0")
+    Stream<PairNet> streamNonZero();
+}
@@ -0,0 +1,11 @@
+package com.example.splitwise.repository;
+
+import com.example.splitwise.entities.PairwiseBalanceId;
+
+import java.util.SortedMap;
+
+public interface PairwiseBalanceRepositoryCustom {
+
+    // Adds each delta to its pair, creating missing pairs. Sorted so concurrent writers lock pairs in one order.
+    void increment(SortedMap<PairwiseBalanceId, Long> deltas);
+}
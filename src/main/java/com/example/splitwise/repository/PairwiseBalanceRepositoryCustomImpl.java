@@ -0,0 +1,51 @@
+package com.example.splitwise.repository;
+
+import com.example.splitwise.entities.PairwiseBalanceId;
+import com.example.splitwise.metrics.SqlStatementCounter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+
+// Plain JDBC so the increments go out as one batch without flushing or dirty-checking the persistence context
+@RequiredArgsConstructor
+class PairwiseBalanceRepositoryCustomImpl implements PairwiseBalanceRepositoryCustom {
+
+    private static final String INCREMENT = """
+            MERGE INTO pairwise_balances b
+            USING (SELECT CAST(? AS VARCHAR(255)) AS low_user_id,
+                          CAST(? AS VARCHAR(255)) AS high_user_id,
+                          CAST(? AS BIGINT) AS amount) d
+            ON b.low_user_id = d.low_user_id AND b.high_user_id = d.high_user_id
+            WHEN MATCHED THEN UPDATE SET amount = b.amount + d.amount
+            WHEN NOT MATCHED THEN INSERT (low_user_id, high_user_id, amount)
+                VALUES (d.low_user_id, d.high_user_id, d.amount)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void increment(SortedMap<PairwiseBalanceId, Long> deltas) {
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((pair, delta) -> {
+            if (delta != 0) {
+                rows.add(new Object[]{pair.getLowUserId(), pair.getHighUserId(), delta});
+            }
+        });
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        SqlStatementCounter.count();
+        try {
+            jdbcTemplate.batchUpdate(INCREMENT, rows);
+        } catch (DuplicateKeyException e) {
+            // Another transaction created the same new pair first; a retried write will find its row
+            throw new ConcurrencyFailureException("A balance pair was created concurrently", e);
+        }
+    }
+}
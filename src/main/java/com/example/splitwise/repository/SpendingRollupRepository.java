@@ -0,0 +1,37 @@
+package com.example.splitwise.repository;
+
+import com.example.splitwise.entities.SpendingRollup;
+import com.example.splitwise.entities.SpendingRollupId;
+import com.example.splitwise.enums.RollupGranularity;
+import com.example.splitwise.enums.RollupScope;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface SpendingRollupRepository
+        extends JpaRepository<SpendingRollup, SpendingRollupId>, SpendingRollupRepositoryCustom {
+
+    // A primary key range scan
+    @Query("select r from SpendingRollup r where r.scopeType = :scopeType and r.scopeId = :scopeId " +
+            "and r.granularity = :granularity and r.periodStart between :from and :to order by r.periodStart")
+    List<SpendingRollup> findBuckets(@Param("scopeType") RollupScope scopeType,
+                                     @Param("scopeId") String scopeId,
+                                     @Param("granularity") RollupGranularity granularity,
+                                     @Param("from") LocalDate from,
+                                     @Param("to") LocalDate to);
+
+    // Unmanaged copies, so the persistence context stays empty however many rows there are
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.example.splitwise.entities.SpendingRollup(r.scopeType, r.scopeId, r.granularity, " +
+            "r.periodStart, r.shareAmount, r.paidAmount, r.expenseCount) from SpendingRollup r")
+    Stream<SpendingRollup> streamAll();
+}
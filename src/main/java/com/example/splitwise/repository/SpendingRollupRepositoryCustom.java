@@ -0,0 +1,12 @@
+package com.example.splitwise.repository;
+
+import com.example.splitwise.entities.SpendingRollup;
+
+import java.util.Collection;
+
+public interface SpendingRollupRepositoryCustom {
+
+    // Adds each row's amounts to the stored row with the same key, creating missing rows.
+    // Pass rows in key order so concurrent writers lock them in one order.
+    void increment(Collection<SpendingRollup> deltas);
+}
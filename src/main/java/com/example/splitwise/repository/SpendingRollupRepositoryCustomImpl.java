@@ -0,0 +1,62 @@
+package com.example.splitwise.repository;
+
+import com.example.splitwise.entities.SpendingRollup;
+import com.example.splitwise.metrics.SqlStatementCounter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Same batched MERGE as the pairwise balances, keyed by (scope, id, granularity, period start)
+@RequiredArgsConstructor
+class SpendingRollupRepositoryCustomImpl implements SpendingRollupRepositoryCustom {
+
+    private static final String INCREMENT = """
+            MERGE INTO spending_rollups r
+            USING (SELECT CAST(? AS VARCHAR(16)) AS scope_type,
+                          CAST(? AS VARCHAR(255)) AS scope_id,
+                          CAST(? AS VARCHAR(16)) AS granularity,
+                          CAST(? AS DATE) AS period_start,
+                          CAST(? AS BIGINT) AS share_amount,
+                          CAST(? AS BIGINT) AS paid_amount,
+                          CAST(? AS BIGINT) AS expense_count) d
+            ON r.scope_type = d.scope_type AND r.scope_id = d.scope_id
+                AND r.granularity = d.granularity AND r.period_start = d.period_start
+            WHEN MATCHED THEN UPDATE SET share_amount = r.share_amount + d.share_amount,
+                                         paid_amount = r.paid_amount + d.paid_amount,
+                                         expense_count = r.expense_count + d.expense_count
+            WHEN NOT MATCHED THEN INSERT (scope_type, scope_id, granularity, period_start,
+                                          share_amount, paid_amount, expense_count)
+                VALUES (d.scope_type, d.scope_id, d.granularity, d.period_start,
+                        d.share_amount, d.paid_amount, d.expense_count)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void increment(Collection<SpendingRollup> deltas) {
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        for (SpendingRollup delta : deltas) {
+            if (!delta.isEmpty()) {
+                rows.add(new Object[]{delta.getScopeType().name(), delta.getScopeId(), delta.getGranularity().name(),
+                        delta.getPeriodStart(), delta.getShareAmount(), delta.getPaidAmount(),
+                        delta.getExpenseCount()});
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        SqlStatementCounter.count();
+        try {
+            jdbcTemplate.batchUpdate(INCREMENT, rows);
+        } catch (DuplicateKeyException e) {
+            // Another transaction created the same new bucket first; a retried write will find its row
+            throw new ConcurrencyFailureException("A spending rollup was created concurrently", e);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.splitwise.repository;
+
+import com.example.splitwise.entities.Split;
+import com.example.splitwise.repository.projection.PairAmount;
+import com.example.splitwise.repository.projection.ShareSpend;
+import com.example.splitwise.repository.projection.SplitFlow;
+import com.example.splitwise.repository.projection.SplitRow;
+import com.example.splitwise.repository.projection.UserAmount;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface SplitRepository extends JpaRepository<Split, Long> {
+
+    @Query("select s.user.userId as userId, sum(s.amountOwe) as amount from Split s " +
+            "where s.expense.group.groupId = :groupId group by s.user.userId")
+    List<UserAmount> sumOwedByGroup(@Param("groupId") String groupId);
+
+    @Query("select new com.example.splitwise.repository.projection.SplitRow(s.expense.id, u.userId, s.amountOwe) " +
+            "from Split s join s.user u where s.expense.id in :expenseIds order by s.expense.id, s.id")
+    List<SplitRow> findRowsByExpenseIds(@Param("expenseIds") Collection<Long> expenseIds);
+
+    // What each participant owes each payer across a group; self-shares are left out
+    @Query("select p.userId as payerUserId, u.userId as participantUserId, sum(s.amountOwe) as amount " +
+            "from Split s join s.expense e join e.paidBy p join s.user u " +
+            "where e.group.groupId = :groupId and p.id <> u.id " +
+            "group by p.userId, u.userId")
+    List<PairAmount> sumOwedByPairInGroup(@Param("groupId") String groupId);
+
+    // Forward-only cursor over every non-zero split; rows are DTOs, so the persistence context stays empty
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.example.splitwise.repository.projection.SplitFlow(p.userId, u.userId, s.amountOwe) " +
+            "from Split s join s.expense e join e.paidBy p join s.user u where s.amountOwe <> 0")
+    Stream<SplitFlow> streamFlows();
+
+    @Query("select count(s) from Split s where s.amountOwe <> 0")
+    long countFlows();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.example.splitwise.repository.projection.ShareSpend(u.userId, e.occurredAt, s.amountOwe) " +
+            "from Split s join s.expense e join s.user u")
+    Stream<ShareSpend> streamShares();
+}
@@ -1,15 +1,22 @@
 package com.example.splitwise.repository;
 
 import com.example.splitwise.entities.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUserId(String userId);
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
     boolean existsByUserId(String userId);
     boolean existsByEmail(String email);
-}
 
+    @EntityGraph(attributePaths = "userExpenseBalanceSheet")
+    List<User> findByUserIdIn(Collection<String> userIds);
+}
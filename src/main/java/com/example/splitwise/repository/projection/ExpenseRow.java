@@ -0,0 +1,22 @@
+package com.example.splitwise.repository.projection;
+
+import com.example.splitwise.enums.ExpenseSplitType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+// Flat expense columns selected with a JPQL constructor expression, so no entity or association is loaded
+@Getter
+@AllArgsConstructor
+public class ExpenseRow {
+    private Long id;
+    private String expenseId;
+    private String description;
+    private Long expenseAmount;
+    private String paidByUserId;
+    private ExpenseSplitType splitType;
+    private String groupId;
+    private Instant createdAt;
+    private Instant occurredAt;
+}
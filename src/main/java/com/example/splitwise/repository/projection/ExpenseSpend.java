@@ -0,0 +1,16 @@
+package com.example.splitwise.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+// What an expense contributes to the rollups of its payer and group
+@Getter
+@AllArgsConstructor
+public class ExpenseSpend {
+    private final String paidByUserId;
+    private final String groupId;
+    private final Instant occurredAt;
+    private final Long expenseAmount;
+}
@@ -0,0 +1,6 @@
+package com.example.splitwise.repository.projection;
+
+public interface GroupMember {
+    String getGroupId();
+    String getUserId();
+}
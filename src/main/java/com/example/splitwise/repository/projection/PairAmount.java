@@ -0,0 +1,7 @@
+package com.example.splitwise.repository.projection;
+
+public interface PairAmount {
+    String getPayerUserId();
+    String getParticipantUserId();
+    Long getAmount();
+}
@@ -0,0 +1,13 @@
+package com.example.splitwise.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// A stored pairwise balance read as a DTO, for full scans that should not fill the persistence context
+@Getter
+@AllArgsConstructor
+public class PairNet {
+    private final String lowUserId;
+    private final String highUserId;
+    private final Long amount;
+}
@@ -0,0 +1,15 @@
+package com.example.splitwise.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+// What a split contributes to its participant's rollups
+@Getter
+@AllArgsConstructor
+public class ShareSpend {
+    private final String userId;
+    private final Instant occurredAt;
+    private final Long amountOwe;
+}
@@ -0,0 +1,13 @@
+package com.example.splitwise.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// One split as a money flow: the participant owes the payer `amount` minor units
+@Getter
+@AllArgsConstructor
+public class SplitFlow {
+    private String payerUserId;
+    private String participantUserId;
+    private Long amount;
+}
@@ -0,0 +1,12 @@
+package com.example.splitwise.repository.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class SplitRow {
+    private Long expenseId; // Surrogate id of the owning expense
+    private String userId;
+    private Long amountOwe;
+}
@@ -0,0 +1,6 @@
+package com.example.splitwise.repository.projection;
+
+public interface UserAmount {
+    String getUserId();
+    Long getAmount();
+}
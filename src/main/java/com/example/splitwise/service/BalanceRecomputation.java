@@ -0,0 +1,197 @@
+package com.example.splitwise.service;
+
+import com.example.splitwise.entities.PairwiseBalanceId;
+import com.example.splitwise.repository.projection.SplitFlow;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+// Recomputes balance sheets from a stream of split flows, applying the same fold as the ledger projector.
+// Users are spread over partitions by index; each chunk of rows is folded by one fork-join task per partition,
+// and a partition only ever writes its own users' totals and the pairs whose lower index it owns, so no locking
+// or merging is needed. While one chunk is being folded the next one is filled, so at most two chunks of rows
+// are held at once.
+final class BalanceRecomputation {
+
+    static final int PAYMENT = 0;
+    static final int YOUR_EXPENSE = 1;
+    static final int YOU_GET_BACK = 2;
+    static final int YOU_OWE = 3;
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final Partition[] partitions;
+    private final Map<String, Integer> userIndex = new HashMap<>();
+    private final List<String> userIds = new ArrayList<>();
+
+    private Chunk filling;
+    private Chunk spare;
+    private ForkJoinTask<Void> inFlight;
+
+    BalanceRecomputation(ForkJoinPool pool, int chunkSize) {
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+        this.partitions = new Partition[pool.getParallelism()];
+        for (int i = 0; i < partitions.length; i++) {
+            partitions[i] = new Partition();
+        }
+        this.filling = new Chunk(chunkSize);
+        this.spare = new Chunk(chunkSize);
+    }
+
+    void add(SplitFlow flow) {
+        filling.add(indexOf(flow.getPayerUserId()), indexOf(flow.getParticipantUserId()), flow.getAmount());
+        if (filling.size == chunkSize) {
+            submitFilling();
+        }
+    }
+
+    // Folds whatever is left and returns the expected totals of every user seen and every non-zero pair
+    Expected finish() {
+        submitFilling();
+        awaitInFlight();
+
+        Expected expected = new Expected();
+        for (Partition partition : partitions) {
+            partition.totals.forEach((user, totals) -> expected.totals.put(userIds.get(user), totals));
+            partition.nets.forEach((pair, net) -> {
+                if (net[0] == 0) {
+                    return;
+                }
+                // Re-key from index order to the stored userId order, flipping the sign if the two differ
+                String userId = userIds.get((int) (pair >>> 32));
+                String otherUserId = userIds.get((int) (pair & 0xFFFFFFFFL));
+                PairwiseBalanceId id = PairwiseBalanceId.of(userId, otherUserId);
+                expected.pairs.put(id, id.debtDelta(otherUserId, net[0]));
+            });
+        }
+        return expected;
+    }
+
+    private int indexOf(String userId) {
+        Integer index = userIndex.get(userId);
+        if (index == null) {
+            index = userIds.size();
+            userIndex.put(userId, index);
+            userIds.add(userId);
+        }
+        return index;
+    }
+
+    private void submitFilling() {
+        awaitInFlight();
+        if (filling.size == 0) {
+            return;
+        }
+        Chunk chunk = filling;
+        filling = spare;
+        spare = chunk;
+        inFlight = pool.submit(new FoldChunk(chunk, 0, partitions.length));
+    }
+
+    private void awaitInFlight() {
+        if (inFlight != null) {
+            inFlight.join();
+            spare.size = 0;
+            inFlight = null;
+        }
+    }
+
+    private final class FoldChunk extends RecursiveAction {
+        private final Chunk chunk;
+        private final int fromPartition;
+        private final int toPartition;
+
+        FoldChunk(Chunk chunk, int fromPartition, int toPartition) {
+            this.chunk = chunk;
+            this.fromPartition = fromPartition;
+            this.toPartition = toPartition;
+        }
+
+        @Override
+        protected void compute() {
+            if (toPartition - fromPartition == 1) {
+                fold(fromPartition);
+                return;
+            }
+            int mid = (fromPartition + toPartition) >>> 1;
+            invokeAll(new FoldChunk(chunk, fromPartition, mid), new FoldChunk(chunk, mid, toPartition));
+        }
+
+        private void fold(int partitionIndex) {
+            Partition partition = partitions[partitionIndex];
+            int partitionCount = partitions.length;
+            for (int i = 0; i < chunk.size; i++) {
+                int payer = chunk.payers[i];
+                int participant = chunk.participants[i];
+                long amount = chunk.amounts[i];
+
+                if (payer % partitionCount == partitionIndex) {
+                    long[] totals = partition.totals(payer);
+                    totals[PAYMENT] += amount;
+                    if (payer == participant) {
+                        totals[YOUR_EXPENSE] += amount;
+                    } else {
+                        totals[YOU_GET_BACK] += amount;
+                    }
+                }
+                if (payer == participant) {
+                    continue;
+                }
+                if (participant % partitionCount == partitionIndex) {
+                    long[] totals = partition.totals(participant);
+                    totals[YOU_OWE] += amount;
+                    totals[YOUR_EXPENSE] += amount;
+                }
+                if (Math.min(payer, participant) % partitionCount == partitionIndex) {
+                    partition.net(payer, participant)[0] += participant > payer ? amount : -amount;
+                }
+            }
+        }
+    }
+
+    private static final class Partition {
+        private final Map<Integer, long[]> totals = new HashMap<>();
+        private final Map<Long, long[]> nets = new HashMap<>(); // (low << 32 | high) -> {what high owes low}
+
+        long[] totals(int user) {
+            return totals.computeIfAbsent(user, key -> new long[4]);
+        }
+
+        long[] net(int user, int other) {
+            int low = Math.min(user, other);
+            int high = Math.max(user, other);
+            return nets.computeIfAbsent(((long) low << 32) | high, key -> new long[1]);
+        }
+    }
+
+    private static final class Chunk {
+        private final int[] payers;
+        private final int[] participants;
+        private final long[] amounts;
+        private int size;
+
+        Chunk(int capacity) {
+            payers = new int[capacity];
+            participants = new int[capacity];
+            amounts = new long[capacity];
+        }
+
+        void add(int payer, int participant, long amount) {
+            payers[size] = payer;
+            participants[size] = participant;
+            amounts[size] = amount;
+            size++;
+        }
+    }
+
+    static final class Expected {
+        final Map<String, long[]> totals = new HashMap<>(); // userId -> totals, indexed by the constants above
+        final Map<PairwiseBalanceId, Long> pairs = new HashMap<>(); // non-zero nets, signed as stored
+    }
+}
@@ -0,0 +1,407 @@
+package com.example.splitwise.service;
+
+import com.example.splitwise.dto.DriftDetail;
+import com.example.splitwise.dto.ReconciliationReport;
+import com.example.splitwise.entities.PairwiseBalanceId;
+import com.example.splitwise.entities.UserExpenseBalanceSheet;
+import com.example.splitwise.enums.ReconciliationStatus;
+import com.example.splitwise.repository.BalanceSheetRepository;
+import com.example.splitwise.repository.PairwiseBalanceRepository;
+import com.example.splitwise.repository.SplitRepository;
+import com.example.splitwise.repository.projection.PairNet;
+import com.example.splitwise.repository.projection.SplitFlow;
+import com.example.splitwise.util.Money;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+// Admin job that recomputes every balance sheet from the split rows and reports (and optionally repairs) drift
+@Slf4j
+@Service
+public class BalanceReconciliationService {
+
+    private static final int MAX_REPORTED_DRIFT = 100;
+    private static final int REPAIR_BATCH_SIZE = 500;
+    private static final int MAX_RETAINED_JOBS = 100;
+
+    private final SplitRepository splitRepository;
+    private final BalanceSheetRepository balanceSheetRepository;
+    private final PairwiseBalanceRepository pairwiseBalanceRepository;
+    private final LedgerService ledgerService;
+    private final BalanceSheetCache balanceSheetCache;
+    private final TransactionTemplate snapshotTransaction;
+    private final TransactionTemplate repairTransaction;
+    private final int parallelism;
+    private final int chunkSize;
+
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "balance-reconciliation");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ConcurrentMap<String, Job> jobs = new ConcurrentHashMap<>();
+    private final AtomicReference<Job> runningJob = new AtomicReference<>();
+
+    public BalanceReconciliationService(SplitRepository splitRepository,
+                                        BalanceSheetRepository balanceSheetRepository,
+                                        PairwiseBalanceRepository pairwiseBalanceRepository,
+                                        LedgerService ledgerService,
+                                        BalanceSheetCache balanceSheetCache,
+                                        PlatformTransactionManager transactionManager,
+                                        @Value("${splitwise.reconcile.parallelism:0}") int parallelism,
+                                        @Value("${splitwise.reconcile.chunk-size:50000}") int chunkSize) {
+        this.splitRepository = splitRepository;
+        this.balanceSheetRepository = balanceSheetRepository;
+        this.pairwiseBalanceRepository = pairwiseBalanceRepository;
+        this.ledgerService = ledgerService;
+        this.balanceSheetCache = balanceSheetCache;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.chunkSize = chunkSize;
+
+        // Splits, sheets, pairs and the pending ledger count are read from one repeatable-read snapshot
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.repairTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    public ReconciliationReport start(boolean repair) {
+        Job job = new Job(UUID.randomUUID().toString(), repair);
+        if (!runningJob.compareAndSet(null, job)) {
+            throw new IllegalStateException("Reconciliation " + runningJob.get().id + " is already running");
+        }
+        pruneFinishedJobs();
+        jobs.put(job.id, job);
+        runner.submit(() -> run(job));
+        return job.toReport();
+    }
+
+    public ReconciliationReport getReport(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            throw new IllegalArgumentException("Reconciliation not found with jobId: " + jobId);
+        }
+        return job.toReport();
+    }
+
+    // Only one job runs at a time, so every other entry is finished; the oldest reports are dropped beyond the cap
+    private void pruneFinishedJobs() {
+        int excess = jobs.size() - MAX_RETAINED_JOBS + 1;
+        if (excess <= 0) {
+            return;
+        }
+        jobs.values().stream()
+                .filter(job -> job.finishedAt != null)
+                .sorted(Comparator.comparing(job -> job.startedAt))
+                .limit(excess)
+                .toList()
+                .forEach(job -> jobs.remove(job.id));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+    }
+
+    private void run(Job job) {
+        try {
+            Comparison comparison = snapshotTransaction.execute(status -> compare(job));
+            if (!job.repair) {
+                job.complete("Checked " + job.sheetsChecked.get() + " balance sheets" + pendingNote(comparison));
+            } else if (comparison.pendingLedgerEntries() > 0) {
+                job.complete("Repair skipped" + pendingNote(comparison));
+            } else {
+                repair(comparison.drifted(), job);
+                repairPairs(comparison.pairCorrections(), job);
+                job.complete("Repaired " + job.sheetsRepaired.get() + " balance sheets and "
+                        + job.balancesRepaired.get() + " pairwise balances");
+            }
+            log.info("Reconciliation {} finished: {} of {} sheets drifted, {} repaired, {} splits at {}/s",
+                    job.id, job.sheetsWithDrift.get(), job.sheetsChecked.get(), job.sheetsRepaired.get(),
+                    job.processedSplits.get(), Math.round(job.splitsPerSecond()));
+        } catch (RuntimeException e) {
+            log.error("Reconciliation {} failed", job.id, e);
+            job.fail(e.getMessage());
+        } finally {
+            runningJob.set(null);
+        }
+    }
+
+    private Comparison compare(Job job) {
+        job.totalSplits = splitRepository.countFlows();
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            BalanceRecomputation recomputation = new BalanceRecomputation(pool, chunkSize);
+            try (Stream<SplitFlow> flows = splitRepository.streamFlows()) {
+                flows.forEach(flow -> {
+                    recomputation.add(flow);
+                    job.processedSplits.incrementAndGet();
+                });
+            }
+            BalanceRecomputation.Expected expected = recomputation.finish();
+
+            long pendingLedgerEntries = ledgerService.countPending();
+            List<SheetDrift> drifted = new ArrayList<>();
+            for (UserExpenseBalanceSheet sheet : balanceSheetRepository.findAllWithUser()) {
+                String userId = sheet.getUser().getUserId();
+                long[] expectedTotals = expected.totals.remove(userId);
+                if (expectedTotals == null) {
+                    expectedTotals = new long[4];
+                }
+                job.sheetsChecked.incrementAndGet();
+                if (diff(userId, sheet, expectedTotals, job)) {
+                    drifted.add(new SheetDrift(userId, sheet.getVersion(), expectedTotals));
+                }
+            }
+            if (!expected.totals.isEmpty()) {
+                log.warn("Reconciliation {}: {} users have splits but no balance sheet",
+                        job.id, expected.totals.size());
+            }
+            return new Comparison(drifted, comparePairs(expected.pairs, job), pendingLedgerEntries);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Compares one stored sheet with its recomputed totals and records every field that differs
+    private boolean diff(String userId, UserExpenseBalanceSheet sheet, long[] expected, Job job) {
+        boolean drift = false;
+        drift |= compareField(job, userId, null, "totalPayment",
+                expected[BalanceRecomputation.PAYMENT], sheet.getTotalPayment());
+        drift |= compareField(job, userId, null, "totalYourExpense",
+                expected[BalanceRecomputation.YOUR_EXPENSE], sheet.getTotalYourExpense());
+        drift |= compareField(job, userId, null, "totalYouGetBack",
+                expected[BalanceRecomputation.YOU_GET_BACK], sheet.getTotalYouGetBack());
+        drift |= compareField(job, userId, null, "totalYouOwe",
+                expected[BalanceRecomputation.YOU_OWE], sheet.getTotalYouOwe());
+
+        if (drift) {
+            job.sheetsWithDrift.incrementAndGet();
+        }
+        return drift;
+    }
+
+    // Returns the correction each drifted pair needs, as a delta to add to its stored amount
+    private SortedMap<PairwiseBalanceId, Long> comparePairs(Map<PairwiseBalanceId, Long> expected, Job job) {
+        SortedMap<PairwiseBalanceId, Long> corrections = new TreeMap<>();
+        try (Stream<PairNet> nets = pairwiseBalanceRepository.streamNonZero()) {
+            nets.forEach(net -> {
+                PairwiseBalanceId pair = new PairwiseBalanceId(net.getLowUserId(), net.getHighUserId());
+                Long expectedAmount = expected.remove(pair);
+                comparePair(job, pair, expectedAmount != null ? expectedAmount : 0, net.getAmount(), corrections);
+            });
+        }
+        expected.forEach((pair, expectedAmount) -> comparePair(job, pair, expectedAmount, 0, corrections));
+        return corrections;
+    }
+
+    private void comparePair(Job job, PairwiseBalanceId pair, long expected, long actual,
+                             SortedMap<PairwiseBalanceId, Long> corrections) {
+        if (compareField(job, pair.getLowUserId(), pair.getHighUserId(), "amount", expected, actual)) {
+            job.balancesWithDrift.incrementAndGet();
+            corrections.put(pair, expected - actual);
+        }
+    }
+
+    private boolean compareField(Job job, String userId, String otherUserId, String field, long expected, long actual) {
+        if (expected == actual) {
+            return false;
+        }
+        job.reportDrift(DriftDetail.builder()
+                .userId(userId)
+                .otherUserId(otherUserId)
+                .field(field)
+                .expected(Money.toMajor(expected))
+                .actual(Money.toMajor(actual))
+                .build());
+        return true;
+    }
+
+    private void repair(List<SheetDrift> drifted, Job job) {
+        for (int from = 0; from < drifted.size(); from += REPAIR_BATCH_SIZE) {
+            List<SheetDrift> batch = drifted.subList(from, Math.min(from + REPAIR_BATCH_SIZE, drifted.size()));
+            try {
+                RepairResult result = repairTransaction.execute(status -> repairBatch(batch));
+                job.sheetsRepaired.addAndGet(result.repaired());
+                job.sheetsSkipped.addAndGet(result.skipped());
+            } catch (ConcurrencyFailureException e) {
+                log.warn("Reconciliation {}: a sheet changed while repairing, skipping {} sheets", job.id, batch.size());
+                job.sheetsSkipped.addAndGet(batch.size());
+            }
+        }
+    }
+
+    private RepairResult repairBatch(List<SheetDrift> batch) {
+        Map<String, SheetDrift> driftByUserId = new HashMap<>();
+        for (SheetDrift drift : batch) {
+            driftByUserId.put(drift.userId(), drift);
+        }
+
+        List<String> repaired = new ArrayList<>();
+        long skipped = 0;
+        for (UserExpenseBalanceSheet sheet : balanceSheetRepository.findByUser_UserIdIn(driftByUserId.keySet())) {
+            SheetDrift drift = driftByUserId.get(sheet.getUser().getUserId());
+            // A write since the snapshot means the recomputed values are already stale for this sheet
+            if (!Objects.equals(sheet.getVersion(), drift.version())) {
+                skipped++;
+                continue;
+            }
+            applyExpected(sheet, drift.expected());
+            repaired.add(drift.userId());
+        }
+
+        balanceSheetCache.evictOnCommit(repaired);
+        return new RepairResult(repaired.size(), skipped);
+    }
+
+    // Pairs are corrected by increments rather than overwritten, so writes committed after the snapshot survive
+    private void repairPairs(SortedMap<PairwiseBalanceId, Long> corrections, Job job) {
+        SortedMap<PairwiseBalanceId, Long> batch = new TreeMap<>();
+        for (Map.Entry<PairwiseBalanceId, Long> correction : corrections.entrySet()) {
+            batch.put(correction.getKey(), correction.getValue());
+            if (batch.size() == REPAIR_BATCH_SIZE) {
+                repairPairBatch(batch, job);
+                batch = new TreeMap<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            repairPairBatch(batch, job);
+        }
+    }
+
+    private void repairPairBatch(SortedMap<PairwiseBalanceId, Long> batch, Job job) {
+        repairTransaction.executeWithoutResult(status -> {
+            pairwiseBalanceRepository.increment(batch);
+            List<String> userIds = new ArrayList<>(batch.size() * 2);
+            for (PairwiseBalanceId pair : batch.keySet()) {
+                userIds.add(pair.getLowUserId());
+                userIds.add(pair.getHighUserId());
+            }
+            balanceSheetCache.evictOnCommit(userIds);
+        });
+        job.balancesRepaired.addAndGet(batch.size());
+    }
+
+    private void applyExpected(UserExpenseBalanceSheet sheet, long[] expected) {
+        sheet.setTotalPayment(expected[BalanceRecomputation.PAYMENT]);
+        sheet.setTotalYourExpense(expected[BalanceRecomputation.YOUR_EXPENSE]);
+        sheet.setTotalYouGetBack(expected[BalanceRecomputation.YOU_GET_BACK]);
+        sheet.setTotalYouOwe(expected[BalanceRecomputation.YOU_OWE]);
+    }
+
+    private String pendingNote(Comparison comparison) {
+        return comparison.pendingLedgerEntries() > 0
+                ? "; " + comparison.pendingLedgerEntries() + " ledger entries are still pending projection, "
+                        + "so some drift is expected"
+                : "";
+    }
+
+    private record SheetDrift(String userId, Long version, long[] expected) {
+    }
+
+    private record RepairResult(long repaired, long skipped) {
+    }
+
+    private record Comparison(List<SheetDrift> drifted, SortedMap<PairwiseBalanceId, Long> pairCorrections,
+                              long pendingLedgerEntries) {
+    }
+
+    private static final class Job {
+        private final String id;
+        private final boolean repair;
+        private final Instant startedAt = Instant.now();
+        private final AtomicLong processedSplits = new AtomicLong();
+        private final AtomicLong sheetsChecked = new AtomicLong();
+        private final AtomicLong sheetsWithDrift = new AtomicLong();
+        private final AtomicLong balancesWithDrift = new AtomicLong();
+        private final AtomicLong sheetsRepaired = new AtomicLong();
+        private final AtomicLong sheetsSkipped = new AtomicLong();
+        private final AtomicLong balancesRepaired = new AtomicLong();
+        private final List<DriftDetail> drift = Collections.synchronizedList(new ArrayList<>());
+        private volatile long totalSplits;
+        private volatile ReconciliationStatus status = ReconciliationStatus.RUNNING;
+        private volatile Instant finishedAt;
+        private volatile String message;
+
+        Job(String id, boolean repair) {
+            this.id = id;
+            this.repair = repair;
+        }
+
+        void reportDrift(DriftDetail detail) {
+            if (drift.size() < MAX_REPORTED_DRIFT) {
+                drift.add(detail);
+            }
+        }
+
+        void complete(String message) {
+            this.message = message;
+            this.finishedAt = Instant.now();
+            this.status = ReconciliationStatus.COMPLETED;
+        }
+
+        void fail(String message) {
+            this.message = message;
+            this.finishedAt = Instant.now();
+            this.status = ReconciliationStatus.FAILED;
+        }
+
+        double splitsPerSecond() {
+            Instant end = finishedAt != null ? finishedAt : Instant.now();
+            long millis = Math.max(1, Duration.between(startedAt, end).toMillis());
+            return processedSplits.get() * 1000.0 / millis;
+        }
+
+        ReconciliationReport toReport() {
+            List<DriftDetail> driftCopy;
+            synchronized (drift) {
+                driftCopy = List.copyOf(drift);
+            }
+            return ReconciliationReport.builder()
+                    .jobId(id)
+                    .status(status)
+                    .repair(repair)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .totalSplits(totalSplits)
+                    .processedSplits(processedSplits.get())
+                    .splitsPerSecond(splitsPerSecond())
+                    .sheetsChecked(sheetsChecked.get())
+                    .sheetsWithDrift(sheetsWithDrift.get())
+                    .balancesWithDrift(balancesWithDrift.get())
+                    .sheetsRepaired(sheetsRepaired.get())
+                    .sheetsSkipped(sheetsSkipped.get())
+                    .balancesRepaired(balancesRepaired.get())
+                    .message(message)
+                    .drift(driftCopy)
+                    .build();
+        }
+    }
+}
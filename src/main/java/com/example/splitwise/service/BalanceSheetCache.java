@@ -0,0 +1,66 @@
+package com.example.splitwise.service;
+
+import com.example.splitwise.dto.BalanceSheetResponse;
+import com.example.splitwise.dto.CacheStatsResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+@Component
+public class BalanceSheetCache {
+
+    private final Cache<String, BalanceSheetResponse> responsesByUserId;
+
+    public BalanceSheetCache(@Value("${splitwise.balance-cache.max-size:10000}") long maxSize,
+                             @Value("${splitwise.balance-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.responsesByUserId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    // Loads run inside the cache's per-key compute, so an eviction racing a load waits for it and then removes it
+    public BalanceSheetResponse get(String userId, Function<String, BalanceSheetResponse> loader) {
+        return responsesByUserId.get(userId, loader);
+    }
+
+    // Drops the given users' entries once the surrounding transaction commits; a rollback leaves them untouched
+    public void evictOnCommit(Collection<String> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            responsesByUserId.invalidateAll(userIds);
+            return;
+        }
+
+        List<String> keys = List.copyOf(userIds);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                responsesByUserId.invalidateAll(keys);
+            }
+        });
+    }
+
+    public CacheStatsResponse getStats() {
+        CacheStats stats = responsesByUserId.stats();
+        return CacheStatsResponse.builder()
+                .size(responsesByUserId.estimatedSize())
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictionCount(stats.evictionCount())
+                .build();
+    }
+}
@@ -1,87 +1,160 @@
 package com.example.splitwise.service;
 
-import com.example.splitwise.entities.Balance;
+import com.example.splitwise.dto.BalanceDetail;
+import com.example.splitwise.dto.BalanceSheetResponse;
+import com.example.splitwise.dto.CacheStatsResponse;
+import com.example.splitwise.entities.LedgerEntry;
+import com.example.splitwise.entities.PairwiseBalance;
+import com.example.splitwise.entities.PairwiseBalanceId;
 import com.example.splitwise.entities.Split;
 import com.example.splitwise.entities.User;
 import com.example.splitwise.entities.UserExpenseBalanceSheet;
 import com.example.splitwise.repository.BalanceSheetRepository;
+import com.example.splitwise.repository.PairwiseBalanceRepository;
+import com.example.splitwise.util.Money;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 @Service
 @RequiredArgsConstructor
 public class BalanceSheetService {
 
     private final BalanceSheetRepository balanceSheetRepository;
+    private final PairwiseBalanceRepository pairwiseBalanceRepository;
+    private final BalanceSheetCache balanceSheetCache;
+
+    // Applies an expense to the in-memory balance sheets, records every sheet it touched keyed by userId,
+    // and accumulates the change to each pairwise balance
+    public void applyExpense(User expensePaidBy, List<Split> splits,
+                             Map<String, UserExpenseBalanceSheet> touchedSheets,
+                             Map<PairwiseBalanceId, Long> pairDeltas) {
+        touchedSheets.putIfAbsent(expensePaidBy.getUserId(), expensePaidBy.getUserExpenseBalanceSheet());
+        for (Split split : splits) {
+            User userOwe = split.getUser();
+            touchedSheets.putIfAbsent(userOwe.getUserId(), userOwe.getUserExpenseBalanceSheet());
+            applyDelta(touchedSheets, pairDeltas, expensePaidBy.getUserId(), userOwe.getUserId(), split.getAmountOwe());
+        }
+    }
 
     @Transactional
-    public void updateUserExpenseBalanceSheet(User expensePaidBy, java.util.List<Split> splits, Double totalExpenseAmount) {
+    public void applyLedgerEntries(List<LedgerEntry> entries) {
+        Set<String> userIds = new HashSet<>();
+        for (LedgerEntry entry : entries) {
+            userIds.add(entry.getPayerUserId());
+            userIds.add(entry.getParticipantUserId());
+        }
+
+        Map<String, UserExpenseBalanceSheet> sheetsByUserId = new TreeMap<>();
+        for (UserExpenseBalanceSheet sheet : balanceSheetRepository.findByUser_UserIdIn(userIds)) {
+            sheetsByUserId.put(sheet.getUser().getUserId(), sheet);
+        }
+
+        SortedMap<PairwiseBalanceId, Long> pairDeltas = new TreeMap<>();
+        for (LedgerEntry entry : entries) {
+            applyDelta(sheetsByUserId, pairDeltas,
+                    entry.getPayerUserId(), entry.getParticipantUserId(), entry.getAmount());
+            entry.setApplied(true);
+        }
+        saveBalanceSheets(sheetsByUserId.values(), pairDeltas);
+    }
+
+    private void applyDelta(Map<String, UserExpenseBalanceSheet> sheetsByUserId,
+                            Map<PairwiseBalanceId, Long> pairDeltas,
+                            String paidByUserId, String oweUserId, long oweAmount) {
+        UserExpenseBalanceSheet paidByUserExpenseSheet = requireSheet(sheetsByUserId, paidByUserId);
+
         // Update the total amount paid of the expense paid by user
-        UserExpenseBalanceSheet paidByUserExpenseSheet = expensePaidBy.getUserExpenseBalanceSheet();
-        paidByUserExpenseSheet.setTotalPayment(paidByUserExpenseSheet.getTotalPayment() + totalExpenseAmount);
+        paidByUserExpenseSheet.setTotalPayment(paidByUserExpenseSheet.getTotalPayment() + oweAmount);
 
-        for (Split split : splits) {
-            User userOwe = split.getUser();
-            UserExpenseBalanceSheet oweUserExpenseSheet = userOwe.getUserExpenseBalanceSheet();
-            Double oweAmount = split.getAmountOwe();
-
-            if (expensePaidBy.getUserId().equals(userOwe.getUserId())) {
-                paidByUserExpenseSheet.setTotalYourExpense(
-                        paidByUserExpenseSheet.getTotalYourExpense() + oweAmount
-                );
-            } else {
-                // Update the balance of paid user
-                paidByUserExpenseSheet.setTotalYouGetBack(
-                        paidByUserExpenseSheet.getTotalYouGetBack() + oweAmount
-                );
-
-                Balance userOweBalance = getOrCreateBalance(
-                        paidByUserExpenseSheet, userOwe.getUserId()
-                );
-                userOweBalance.setAmountGetBack(userOweBalance.getAmountGetBack() + oweAmount);
-
-                // Update the balance sheet of owe user
-                oweUserExpenseSheet.setTotalYouOwe(oweUserExpenseSheet.getTotalYouOwe() + oweAmount);
-                oweUserExpenseSheet.setTotalYourExpense(
-                        oweUserExpenseSheet.getTotalYourExpense() + oweAmount
-                );
-
-                Balance userPaidBalance = getOrCreateBalance(
-                        oweUserExpenseSheet, expensePaidBy.getUserId()
-                );
-                userPaidBalance.setAmountOwe(userPaidBalance.getAmountOwe() + oweAmount);
-            }
+        if (paidByUserId.equals(oweUserId)) {
+            paidByUserExpenseSheet.setTotalYourExpense(
+                    paidByUserExpenseSheet.getTotalYourExpense() + oweAmount
+            );
+            return;
         }
 
-        balanceSheetRepository.save(paidByUserExpenseSheet);
-        for (Split split : splits) {
-            if (!expensePaidBy.getUserId().equals(split.getUser().getUserId())) {
-                balanceSheetRepository.save(split.getUser().getUserExpenseBalanceSheet());
-            }
+        // Update the balance of paid user
+        paidByUserExpenseSheet.setTotalYouGetBack(
+                paidByUserExpenseSheet.getTotalYouGetBack() + oweAmount
+        );
+
+        // Update the balance sheet of owe user
+        UserExpenseBalanceSheet oweUserExpenseSheet = requireSheet(sheetsByUserId, oweUserId);
+        oweUserExpenseSheet.setTotalYouOwe(oweUserExpenseSheet.getTotalYouOwe() + oweAmount);
+        oweUserExpenseSheet.setTotalYourExpense(
+                oweUserExpenseSheet.getTotalYourExpense() + oweAmount
+        );
+
+        // The pair itself is a single signed row, written once per pair when the sheets are saved
+        PairwiseBalanceId pair = PairwiseBalanceId.of(paidByUserId, oweUserId);
+        pairDeltas.merge(pair, pair.debtDelta(oweUserId, oweAmount), Long::sum);
+    }
+
+    private UserExpenseBalanceSheet requireSheet(Map<String, UserExpenseBalanceSheet> sheetsByUserId, String userId) {
+        UserExpenseBalanceSheet sheet = sheetsByUserId.get(userId);
+        if (sheet == null) {
+            throw new IllegalStateException("Balance sheet not found for userId: " + userId);
         }
+        return sheet;
     }
 
-    private Balance getOrCreateBalance(UserExpenseBalanceSheet balanceSheet, String userId) {
-        Map<String, Balance> userVsBalance = balanceSheet.getUserVsBalance();
-        Balance balance = userVsBalance.get(userId);
-
-        if (balance == null) {
-            balance = new Balance();
-            balance.setUserId(userId);
-            balance.setBalanceSheet(balanceSheet);
-            balance.setAmountOwe(0.0);
-            balance.setAmountGetBack(0.0);
-            balanceSheet.addBalance(balance);
+    // Lock order for concurrent writers: hibernate.order_updates issues the sheet UPDATEs by primary key at flush,
+    // whatever order balanceSheets is in; the pair MERGEs run in pairDeltas key order
+    @Transactional
+    public void saveBalanceSheets(Collection<UserExpenseBalanceSheet> balanceSheets,
+                                  SortedMap<PairwiseBalanceId, Long> pairDeltas) {
+        balanceSheetRepository.saveAll(balanceSheets);
+        pairwiseBalanceRepository.increment(pairDeltas);
+
+        List<String> userIds = new ArrayList<>(balanceSheets.size());
+        for (UserExpenseBalanceSheet balanceSheet : balanceSheets) {
+            userIds.add(balanceSheet.getUser().getUserId());
         }
+        balanceSheetCache.evictOnCommit(userIds);
+    }
+
+    public BalanceSheetResponse getBalanceSheetResponse(String userId) {
+        return balanceSheetCache.get(userId, this::loadBalanceSheetResponse);
+    }
 
-        return balance;
+    public CacheStatsResponse getCacheStats() {
+        return balanceSheetCache.getStats();
     }
 
-    public UserExpenseBalanceSheet getUserBalanceSheet(User user) {
-        return user.getUserExpenseBalanceSheet();
+    private BalanceSheetResponse loadBalanceSheetResponse(String userId) {
+        UserExpenseBalanceSheet balanceSheet = balanceSheetRepository.findByUser_UserId(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found with userId: " + userId));
+
+        // Only this user's pairs are read; each net shows up as either amountOwe or amountGetBack
+        Map<String, BalanceDetail> userVsBalance = new HashMap<>();
+        for (PairwiseBalance balance : pairwiseBalanceRepository.findNonZeroByUserId(userId)) {
+            long owedToUser = balance.owedTo(userId);
+            userVsBalance.put(balance.counterpartyOf(userId), BalanceDetail.builder()
+                    .amountOwe(Money.toMajor(Math.max(-owedToUser, 0)))
+                    .amountGetBack(Money.toMajor(Math.max(owedToUser, 0)))
+                    .build());
+        }
+
+        return BalanceSheetResponse.builder()
+                .userId(userId)
+                .totalPayment(Money.toMajor(balanceSheet.getTotalPayment()))
+                .totalYourExpense(Money.toMajor(balanceSheet.getTotalYourExpense()))
+                .totalYouGetBack(Money.toMajor(balanceSheet.getTotalYouGetBack()))
+                .totalYouOwe(Money.toMajor(balanceSheet.getTotalYouOwe()))
+                .userVsBalance(Collections.unmodifiableMap(userVsBalance))
+                .build();
     }
 }
 
@@ -0,0 +1,175 @@
+package com.example.splitwise.service;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Point-in-time copy of every balance sheet and pairwise balance, together with what replay needs to catch up.
+// Ledger entries created before the replay watermark are all folded in, except the few listed as pending.
+// At or after the watermark, the ids that were already folded in are listed, because sequence ids do not commit in
+// order and a write still in flight at capture may hold a lower id. Both lists stay as short as the projection
+// backlog and the watermark window, whatever the length of the ledger or the gaps in its ids.
+public final class BalanceSnapshot {
+
+    private static final int MAGIC = 0x53504C42; // "SPLB"
+    private static final int FORMAT_VERSION = 3; // 3: replay watermark instead of applied id ranges
+
+    private final long createdAtEpochMilli;
+    private final long replayFromEpochMilli;
+    private final long maxAppliedId;
+    private final long[] recentAppliedIds;
+    private final long[] pendingIds;
+    private final List<SheetState> sheets;
+    private final List<PairState> pairs;
+
+    // Both id arrays must be sorted ascending
+    public BalanceSnapshot(long createdAtEpochMilli, long replayFromEpochMilli, long maxAppliedId,
+                           long[] recentAppliedIds, long[] pendingIds, List<SheetState> sheets,
+                           List<PairState> pairs) {
+        this.createdAtEpochMilli = createdAtEpochMilli;
+        this.replayFromEpochMilli = replayFromEpochMilli;
+        this.maxAppliedId = maxAppliedId;
+        this.recentAppliedIds = recentAppliedIds;
+        this.pendingIds = pendingIds;
+        this.sheets = sheets;
+        this.pairs = pairs;
+    }
+
+    public long getCreatedAtEpochMilli() {
+        return createdAtEpochMilli;
+    }
+
+    // Entries created from this instant on are replay candidates
+    public long getReplayFromEpochMilli() {
+        return replayFromEpochMilli;
+    }
+
+    public long getMaxAppliedId() {
+        return maxAppliedId;
+    }
+
+    // Entries created before the watermark that were not folded in yet
+    public long[] getPendingIds() {
+        return pendingIds.clone();
+    }
+
+    public List<SheetState> getSheets() {
+        return sheets;
+    }
+
+    public List<PairState> getPairs() {
+        return pairs;
+    }
+
+    // Only meaningful for entries created at or after the watermark
+    public boolean covers(long ledgerEntryId) {
+        return Arrays.binarySearch(recentAppliedIds, ledgerEntryId) >= 0;
+    }
+
+    public void writeTo(OutputStream outputStream) throws IOException {
+        DataOutputStream out = new DataOutputStream(outputStream);
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeLong(createdAtEpochMilli);
+        out.writeLong(replayFromEpochMilli);
+        out.writeLong(maxAppliedId);
+        writeIds(out, recentAppliedIds);
+        writeIds(out, pendingIds);
+
+        out.writeInt(sheets.size());
+        for (SheetState sheet : sheets) {
+            out.writeUTF(sheet.userId());
+            out.writeLong(sheet.totalPayment());
+            out.writeLong(sheet.totalYourExpense());
+            out.writeLong(sheet.totalYouGetBack());
+            out.writeLong(sheet.totalYouOwe());
+        }
+
+        out.writeInt(pairs.size());
+        for (PairState pair : pairs) {
+            out.writeUTF(pair.lowUserId());
+            out.writeUTF(pair.highUserId());
+            out.writeLong(pair.amount());
+        }
+        out.flush();
+    }
+
+    public static BalanceSnapshot readFrom(InputStream inputStream) throws IOException {
+        DataInputStream in = new DataInputStream(inputStream);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a balance snapshot");
+        }
+        int formatVersion = in.readInt();
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IOException("Unsupported balance snapshot format " + formatVersion);
+        }
+        long createdAtEpochMilli = in.readLong();
+        long replayFromEpochMilli = in.readLong();
+        long maxAppliedId = in.readLong();
+        long[] recentAppliedIds = readIds(in);
+        long[] pendingIds = readIds(in);
+
+        int sheetCount = in.readInt();
+        List<SheetState> sheets = new ArrayList<>(sheetCount);
+        for (int i = 0; i < sheetCount; i++) {
+            String userId = in.readUTF();
+            long totalPayment = in.readLong();
+            long totalYourExpense = in.readLong();
+            long totalYouGetBack = in.readLong();
+            long totalYouOwe = in.readLong();
+            sheets.add(new SheetState(userId, totalPayment, totalYourExpense, totalYouGetBack, totalYouOwe));
+        }
+
+        int pairCount = in.readInt();
+        List<PairState> pairs = new ArrayList<>(pairCount);
+        for (int i = 0; i < pairCount; i++) {
+            pairs.add(new PairState(in.readUTF(), in.readUTF(), in.readLong()));
+        }
+        return new BalanceSnapshot(createdAtEpochMilli, replayFromEpochMilli, maxAppliedId, recentAppliedIds,
+                pendingIds, sheets, pairs);
+    }
+
+    private static void writeIds(DataOutputStream out, long[] ids) throws IOException {
+        out.writeInt(ids.length);
+        for (long id : ids) {
+            out.writeLong(id);
+        }
+    }
+
+    private static long[] readIds(DataInputStream in) throws IOException {
+        long[] ids = new long[in.readInt()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = in.readLong();
+        }
+        return ids;
+    }
+
+    // Collects ascending ids into a growable array
+    public static final class IdListBuilder {
+        private long[] ids = new long[16];
+        private int size;
+
+        public void add(long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+            }
+            ids[size++] = id;
+        }
+
+        public long[] build() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+
+    public record SheetState(String userId, long totalPayment, long totalYourExpense, long totalYouGetBack,
+                             long totalYouOwe) {
+    }
+
+    public record PairState(String lowUserId, String highUserId, long amount) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.splitwise.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+// Restores balance sheets once all beans exist, which is before the web server and the scheduled
+// ledger projector start, then writes a fresh snapshot on a fixed delay
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "splitwise.snapshot.enabled", havingValue = "true")
+public class BalanceSnapshotScheduler implements SmartInitializingSingleton {
+
+    private final BalanceSnapshotService balanceSnapshotService;
+    private final BalanceSnapshotStore balanceSnapshotStore;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        balanceSnapshotStore.readLatest().ifPresentOrElse(
+                balanceSnapshotService::restore,
+                () -> log.info("No balance snapshot found, starting from stored balance sheets"));
+    }
+
+    @Scheduled(initialDelayString = "${splitwise.snapshot.interval-ms:300000}",
+            fixedDelayString = "${splitwise.snapshot.interval-ms:300000}")
+    public void writeSnapshot() {
+        Path file = balanceSnapshotStore.write(balanceSnapshotService.capture());
+        log.info("Wrote balance snapshot {}", file);
+    }
+}
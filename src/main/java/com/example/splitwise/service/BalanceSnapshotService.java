@@ -0,0 +1,180 @@
+package com.example.splitwise.service;
+
+import com.example.splitwise.entities.LedgerEntry;
+import com.example.splitwise.entities.PairwiseBalanceId;
+import com.example.splitwise.entities.UserExpenseBalanceSheet;
+import com.example.splitwise.repository.BalanceSheetRepository;
+import com.example.splitwise.repository.LedgerEntryRepository;
+import com.example.splitwise.repository.PairwiseBalanceRepository;
+import com.example.splitwise.repository.projection.PairNet;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "splitwise.snapshot.enabled", havingValue = "true")
+public class BalanceSnapshotService {
+
+    private final BalanceSheetRepository balanceSheetRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final PairwiseBalanceRepository pairwiseBalanceRepository;
+    private final BalanceSheetService balanceSheetService;
+    private final EntityManager entityManager;
+    private final int replayBatchSize;
+    private final Duration inFlightMargin;
+
+    public BalanceSnapshotService(BalanceSheetRepository balanceSheetRepository,
+                                  LedgerEntryRepository ledgerEntryRepository,
+                                  PairwiseBalanceRepository pairwiseBalanceRepository,
+                                  BalanceSheetService balanceSheetService,
+                                  EntityManager entityManager,
+                                  @Value("${splitwise.snapshot.replay-batch-size:1000}") int replayBatchSize,
+                                  @Value("${splitwise.snapshot.in-flight-margin-seconds:120}") long marginSeconds) {
+        this.balanceSheetRepository = balanceSheetRepository;
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.pairwiseBalanceRepository = pairwiseBalanceRepository;
+        this.balanceSheetService = balanceSheetService;
+        this.entityManager = entityManager;
+        this.replayBatchSize = replayBatchSize;
+        this.inFlightMargin = Duration.ofSeconds(marginSeconds);
+    }
+
+    // Sheets, pairs and applied ledger ids are read in one repeatable-read transaction,
+    // so they describe the same moment
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public BalanceSnapshot capture() {
+        List<BalanceSnapshot.SheetState> sheets = new ArrayList<>();
+        for (UserExpenseBalanceSheet sheet : balanceSheetRepository.findAllWithUser()) {
+            sheets.add(new BalanceSnapshot.SheetState(sheet.getUser().getUserId(), sheet.getTotalPayment(),
+                    sheet.getTotalYourExpense(), sheet.getTotalYouGetBack(), sheet.getTotalYouOwe()));
+        }
+
+        List<BalanceSnapshot.PairState> pairs = new ArrayList<>();
+        try (Stream<PairNet> nets = pairwiseBalanceRepository.streamNonZero()) {
+            nets.forEach(net -> pairs.add(
+                    new BalanceSnapshot.PairState(net.getLowUserId(), net.getHighUserId(), net.getAmount())));
+        }
+
+        // A write still in flight now may commit an entry stamped before this instant; the margin keeps every such
+        // entry at or after the watermark, where replay checks ids one by one. The watermark is stored in millis, so
+        // it is truncated before it is used here.
+        Instant now = Instant.now();
+        Instant replayFrom = now.minus(inFlightMargin).truncatedTo(ChronoUnit.MILLIS);
+        BalanceSnapshot.IdListBuilder recentAppliedIds = new BalanceSnapshot.IdListBuilder();
+        try (Stream<Long> ids = ledgerEntryRepository.streamAppliedIdsCreatedSince(replayFrom)) {
+            ids.forEach(recentAppliedIds::add);
+        }
+        BalanceSnapshot.IdListBuilder pendingIds = new BalanceSnapshot.IdListBuilder();
+        try (Stream<Long> ids = ledgerEntryRepository.streamPendingIdsCreatedBefore(replayFrom)) {
+            ids.forEach(pendingIds::add);
+        }
+        return new BalanceSnapshot(now.toEpochMilli(), replayFrom.toEpochMilli(),
+                ledgerEntryRepository.findMaxAppliedId(), recentAppliedIds.build(), pendingIds.build(), sheets, pairs);
+    }
+
+    // Resets every balance sheet and pair to the snapshot,
+    // then folds in only the ledger entries the snapshot has not seen
+    @Transactional
+    public void restore(BalanceSnapshot snapshot) {
+        if (snapshot.getMaxAppliedId() > ledgerEntryRepository.findMaxId()) {
+            log.warn("Balance snapshot from {} covers ledger entries missing from the database, not restoring it",
+                    Instant.ofEpochMilli(snapshot.getCreatedAtEpochMilli()));
+            return;
+        }
+
+        Map<String, UserExpenseBalanceSheet> sheetsByUserId = new HashMap<>();
+        for (UserExpenseBalanceSheet sheet : balanceSheetRepository.findAllWithUser()) {
+            sheetsByUserId.put(sheet.getUser().getUserId(), sheet);
+            resetSheet(sheet);
+        }
+        for (BalanceSnapshot.SheetState state : snapshot.getSheets()) {
+            UserExpenseBalanceSheet sheet = sheetsByUserId.get(state.userId());
+            if (sheet == null) {
+                log.warn("Balance snapshot has a sheet for unknown user {}, skipping it", state.userId());
+                continue;
+            }
+            restoreSheet(sheet, state);
+        }
+        balanceSheetRepository.saveAllAndFlush(sheetsByUserId.values());
+
+        // Pairs are replaced wholesale: a bulk delete, then the snapshot's nets as one insert batch
+        SortedMap<PairwiseBalanceId, Long> pairs = new TreeMap<>();
+        for (BalanceSnapshot.PairState pair : snapshot.getPairs()) {
+            pairs.put(new PairwiseBalanceId(pair.lowUserId(), pair.highUserId()), pair.amount());
+        }
+        pairwiseBalanceRepository.deleteAllInBatch();
+        pairwiseBalanceRepository.increment(pairs);
+
+        // Nothing created before the watermark is read except the listed pending entries, so replay cost follows
+        // the backlog and the watermark window, not the length of the ledger
+        int replayed = 0;
+        long[] pendingIds = snapshot.getPendingIds();
+        for (int from = 0; from < pendingIds.length; from += replayBatchSize) {
+            List<Long> ids = new ArrayList<>(replayBatchSize);
+            for (int i = from; i < Math.min(from + replayBatchSize, pendingIds.length); i++) {
+                ids.add(pendingIds[i]);
+            }
+            replayed += replay(ledgerEntryRepository.findAllById(ids));
+        }
+
+        Instant replayFrom = Instant.ofEpochMilli(snapshot.getReplayFromEpochMilli());
+        long afterId = 0;
+        List<LedgerEntry> batch;
+        do {
+            batch = ledgerEntryRepository.findCreatedSince(replayFrom, afterId, PageRequest.of(0, replayBatchSize));
+            List<LedgerEntry> missing = new ArrayList<>();
+            for (LedgerEntry entry : batch) {
+                if (!snapshot.covers(entry.getId())) {
+                    missing.add(entry);
+                }
+                afterId = entry.getId();
+            }
+            replayed += replay(missing);
+        } while (batch.size() == replayBatchSize);
+
+        log.info("Restored {} balance sheets and {} pairs from snapshot taken at {}, replayed {} newer ledger entries",
+                snapshot.getSheets().size(), snapshot.getPairs().size(),
+                Instant.ofEpochMilli(snapshot.getCreatedAtEpochMilli()), replayed);
+    }
+
+    // Folds one batch in, then detaches it so the persistence context does not grow with the replay
+    private int replay(List<LedgerEntry> entries) {
+        if (!entries.isEmpty()) {
+            balanceSheetService.applyLedgerEntries(entries);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return entries.size();
+    }
+
+    private void resetSheet(UserExpenseBalanceSheet sheet) {
+        sheet.setTotalPayment(0);
+        sheet.setTotalYourExpense(0);
+        sheet.setTotalYouGetBack(0);
+        sheet.setTotalYouOwe(0);
+    }
+
+    private void restoreSheet(UserExpenseBalanceSheet sheet, BalanceSnapshot.SheetState state) {
+        sheet.setTotalPayment(state.totalPayment());
+        sheet.setTotalYourExpense(state.totalYourExpense());
+        sheet.setTotalYouGetBack(state.totalYouGetBack());
+        sheet.setTotalYouOwe(state.totalYouOwe());
+    }
+}
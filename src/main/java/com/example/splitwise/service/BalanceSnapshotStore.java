@@ -0,0 +1,96 @@
+package com.example.splitwise.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Gzipped snapshot files named by creation time, written to a temp file first and moved into place atomically
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "splitwise.snapshot.enabled", havingValue = "true")
+public class BalanceSnapshotStore {
+
+    private static final String PREFIX = "balances-";
+    private static final String SUFFIX = ".snapshot.gz";
+
+    private final Path directory;
+    private final int retain;
+
+    public BalanceSnapshotStore(@Value("${splitwise.snapshot.directory:./data/snapshots}") String directory,
+                                @Value("${splitwise.snapshot.retain:3}") int retain) {
+        this.directory = Paths.get(directory);
+        this.retain = retain;
+    }
+
+    public Path write(BalanceSnapshot snapshot) {
+        try {
+            Files.createDirectories(directory);
+            Path target = directory.resolve(PREFIX + String.format("%020d", snapshot.getCreatedAtEpochMilli()) + SUFFIX);
+            Path temp = Files.createTempFile(directory, PREFIX, ".tmp");
+            try (OutputStream out = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                snapshot.writeTo(out);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            prune();
+            return target;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write balance snapshot to " + directory, e);
+        }
+    }
+
+    // Falls back to older files if the newest one cannot be read
+    public Optional<BalanceSnapshot> readLatest() {
+        for (Path file : listNewestFirst()) {
+            try (InputStream in = new GZIPInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                return Optional.of(BalanceSnapshot.readFrom(in));
+            } catch (IOException e) {
+                log.warn("Skipping unreadable balance snapshot {}", file, e);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void prune() throws IOException {
+        List<Path> files = listNewestFirst();
+        for (int i = retain; i < files.size(); i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+    }
+
+    private List<Path> listNewestFirst() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> snapshots = new ArrayList<>(files
+                    .filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .toList());
+            snapshots.sort(Comparator.comparing((Path file) -> file.getFileName().toString()).reversed());
+            return snapshots;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list balance snapshots in " + directory, e);
+        }
+    }
+}
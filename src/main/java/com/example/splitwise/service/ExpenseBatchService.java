@@ -0,0 +1,175 @@
+package com.example.splitwise.service;
+
+import com.example.splitwise.dto.BatchExpenseItemResult;
+import com.example.splitwise.dto.CreateExpenseRequest;
+import com.example.splitwise.entities.Expense;
+import com.example.splitwise.entities.Group;
+import com.example.splitwise.entities.Split;
+import com.example.splitwise.entities.User;
+import com.example.splitwise.enums.OutboxEventType;
+import com.example.splitwise.metrics.ExpenseMetrics;
+import com.example.splitwise.repository.ExpenseRepository;
+import com.example.splitwise.strategy.ExpenseSplit;
+import com.example.splitwise.strategy.SplitFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+@Service
+@RequiredArgsConstructor
+public class ExpenseBatchService {
+
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseService expenseService;
+    private final UserService userService;
+    private final GroupService groupService;
+    private final LedgerService ledgerService;
+    private final SettlementService settlementService;
+    private final SplitFactory splitFactory;
+    private final ExpenseMetrics expenseMetrics;
+    private final OutboxService outboxService;
+    private final SpendingRollupService spendingRollupService;
+
+    @Transactional
+    public List<BatchExpenseItemResult> createExpenses(List<CreateExpenseRequest> requests) {
+        // Resolve every referenced user, group, group membership and existing expense id up front, one query each
+        Map<String, User> usersById = userService.findUsersByUserIds(collectUserIds(requests));
+        Set<String> groupIds = collectGroupIds(requests);
+        Map<String, Group> groupsById = groupService.findGroupsByGroupIds(groupIds);
+        Map<String, Set<String>> membersByGroupId = groupService.findMembers(groupIds, usersById.keySet());
+        Set<String> takenExpenseIds = new HashSet<>(findExistingExpenseIds(requests));
+
+        Function<String, User> userResolver = userId -> {
+            User user = usersById.get(userId);
+            if (user == null) {
+                throw new IllegalArgumentException("User not found with userId: " + userId);
+            }
+            return user;
+        };
+
+        List<BatchExpenseItemResult> results = new ArrayList<>(requests.size());
+        List<Expense> expenses = new ArrayList<>();
+
+        for (int index = 0; index < requests.size(); index++) {
+            CreateExpenseRequest request = requests.get(index);
+            String expenseId = hasText(request.getExpenseId())
+                    ? request.getExpenseId()
+                    : expenseService.generateExpenseId();
+
+            try {
+                if (takenExpenseIds.contains(expenseId)) {
+                    throw new IllegalArgumentException("Expense with expenseId " + expenseId + " already exists");
+                }
+
+                User paidBy = userResolver.apply(request.getPaidByUserId());
+                Group group = null;
+                if (hasText(request.getGroupId())) {
+                    group = groupsById.get(request.getGroupId());
+                    if (group == null) {
+                        throw new IllegalArgumentException("Group not found with groupId: " + request.getGroupId());
+                    }
+                }
+
+                long expenseAmount = expenseService.toExpenseAmount(request.getExpenseAmount());
+                List<Split> splits = expenseMetrics.timeStage(ExpenseMetrics.STAGE_BUILD_SPLITS,
+                        () -> expenseService.buildSplits(request, userResolver));
+                if (group != null) {
+                    groupService.requireMembers(group,
+                            expenseService.participantUserIds(paidBy.getUserId(), splits), membersByGroupId);
+                }
+                ExpenseSplit expenseSplit = splitFactory.getSplitObject(request.getSplitType());
+                expenseMetrics.timeStage(ExpenseMetrics.STAGE_VALIDATE,
+                        () -> expenseSplit.validateSplitRequest(splits, expenseAmount));
+
+                Expense expense = Expense.builder()
+                        .expenseId(expenseId)
+                        .expenseAmount(expenseAmount)
+                        .description(request.getDescription())
+                        .paidBy(paidBy)
+                        .splitType(request.getSplitType())
+                        .splits(splits)
+                        .group(group)
+                        .build();
+                expenseService.stampTimes(expense, request.getOccurredAt());
+
+                // Set expense reference in splits
+                for (Split split : splits) {
+                    split.setExpense(expense);
+                }
+
+                expenses.add(expense);
+                takenExpenseIds.add(expenseId);
+                expenseMetrics.recordCreated(request.getSplitType(), splits.size());
+                if (group != null) {
+                    settlementService.onGroupExpenseCreated(
+                            group.getGroupId(), paidBy.getUserId(), expenseAmount, splits);
+                }
+
+                results.add(BatchExpenseItemResult.builder()
+                        .index(index)
+                        .expenseId(expenseId)
+                        .success(true)
+                        .message("Expense created successfully")
+                        .build());
+            } catch (IllegalArgumentException e) {
+                results.add(BatchExpenseItemResult.builder()
+                        .index(index)
+                        .expenseId(expenseId)
+                        .success(false)
+                        .message(e.getMessage())
+                        .build());
+            }
+        }
+
+        // Expenses and splits are flushed as JDBC batches inside the persist stage; ledger entries and balance rows
+        // follow as batches on commit
+        expenseMetrics.timeStage(ExpenseMetrics.STAGE_PERSIST, () -> {
+            expenseRepository.saveAll(expenses);
+            expenseRepository.flush();
+        });
+        expenseMetrics.timeStage(ExpenseMetrics.STAGE_LEDGER, () -> ledgerService.recordExpenses(expenses));
+        spendingRollupService.recordExpenses(expenses);
+        outboxService.recordExpenseEvents(OutboxEventType.EXPENSE_CREATED, expenses);
+
+        return results;
+    }
+
+    private Set<String> collectUserIds(List<CreateExpenseRequest> requests) {
+        Set<String> userIds = new HashSet<>();
+        for (CreateExpenseRequest request : requests) {
+            userIds.addAll(expenseService.collectUserIds(request));
+        }
+        return userIds;
+    }
+
+    private Set<String> collectGroupIds(List<CreateExpenseRequest> requests) {
+        Set<String> groupIds = new HashSet<>();
+        for (CreateExpenseRequest request : requests) {
+            if (hasText(request.getGroupId())) {
+                groupIds.add(request.getGroupId());
+            }
+        }
+        return groupIds;
+    }
+
+    private List<String> findExistingExpenseIds(List<CreateExpenseRequest> requests) {
+        Set<String> expenseIds = new HashSet<>();
+        for (CreateExpenseRequest request : requests) {
+            if (hasText(request.getExpenseId())) {
+                expenseIds.add(request.getExpenseId());
+            }
+        }
+        return expenseIds.isEmpty() ? List.of() : expenseRepository.findExistingExpenseIds(expenseIds);
+    }
+
+    private boolean hasText(String value) {
+        return value != null && !value.isEmpty();
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.splitwise.service;
+
+import com.example.splitwise.dto.CreateExpenseRequest;
+import com.example.splitwise.dto.SplitDetail;
+import com.example.splitwise.enums.DataFormat;
+import com.example.splitwise.enums.ExpenseSplitType;
+import com.example.splitwise.util.Csv;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Turns records of an import file into expense requests. parse() keeps no state, so records are parsed in parallel;
+// group() then runs in file order.
+//
+// NDJSON: one request per line, in the body format of POST /api/expenses. An EQUAL line that lists splits but no
+// userIds, as exports do, takes its participants from the splits.
+// CSV: the layout of the expense export, one row per split. Consecutive rows with the same expenseId are one
+// expense, and their split amounts are imported as EXACT.
+class ExpenseImportParser {
+
+    private static final List<String> REQUIRED_CSV_COLUMNS = List.of(
+            "expenseId", "description", "expenseAmount", "paidByUserId", "splitUserId", "splitAmount");
+
+    private final DataFormat format;
+    private final ObjectMapper objectMapper;
+    private final Map<String, Integer> columns = new HashMap<>();
+
+    ExpenseImportParser(DataFormat format, ObjectMapper objectMapper, String csvHeader) {
+        this.format = format;
+        this.objectMapper = objectMapper;
+        if (format == DataFormat.CSV) {
+            if (csvHeader == null) {
+                throw new IllegalArgumentException("The CSV file is empty");
+            }
+            List<String> names = Csv.parse(csvHeader);
+            for (int i = 0; i < names.size(); i++) {
+                columns.put(names.get(i).trim(), i);
+            }
+            for (String required : REQUIRED_CSV_COLUMNS) {
+                if (!columns.containsKey(required)) {
+                    throw new IllegalArgumentException("The CSV header has no " + required + " column");
+                }
+            }
+        }
+    }
+
+    ParsedRow parse(RawRecord record) {
+        // A bad CSV row keeps its expenseId, so it rejects its whole expense instead of splitting it in two
+        String groupKey = null;
+        try {
+            if (format != DataFormat.CSV) {
+                return parseJson(record);
+            }
+            List<String> fields = Csv.parse(record.text());
+            groupKey = field(fields, "expenseId");
+            return parseCsv(record, fields, groupKey);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return new ParsedRow(record.firstLine(), record.lastLine(), groupKey, null, e.getMessage());
+        }
+    }
+
+    private ParsedRow parseJson(RawRecord record) {
+        CreateExpenseRequest request;
+        try {
+            request = objectMapper.readValue(record.text(), CreateExpenseRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+        }
+        if (request.getSplitType() == ExpenseSplitType.EQUAL
+                && (request.getUserIds() == null || request.getUserIds().isEmpty())
+                && request.getSplits() != null) {
+            request.setUserIds(request.getSplits().stream().map(SplitDetail::getUserId).toList());
+        }
+        return new ParsedRow(record.firstLine(), record.lastLine(), null, request, null);
+    }
+
+    private ParsedRow parseCsv(RawRecord record, List<String> fields, String expenseId) {
+        if (expenseId == null) {
+            throw new IllegalArgumentException("expenseId is required in CSV imports");
+        }
+        String occurredAt = field(fields, "occurredAt");
+
+        List<SplitDetail> splits = new ArrayList<>();
+        splits.add(new SplitDetail(field(fields, "splitUserId"), decimal(fields, "splitAmount")));
+        CreateExpenseRequest request = CreateExpenseRequest.builder()
+                .expenseId(expenseId)
+                .description(field(fields, "description"))
+                .expenseAmount(decimal(fields, "expenseAmount"))
+                .paidByUserId(field(fields, "paidByUserId"))
+                .splitType(ExpenseSplitType.EXACT)
+                .splits(splits)
+                .groupId(field(fields, "groupId"))
+                .occurredAt(occurredAt != null ? Instant.parse(occurredAt) : null)
+                .build();
+        return new ParsedRow(record.firstLine(), record.lastLine(), expenseId, request, null);
+    }
+
+    // Merges the CSV rows of each expense. Unless this is the end of the file, the last expense may continue in
+    // the next chunk, so its rows are left in `carry` instead of being returned.
+    List<ImportItem> group(List<ParsedRow> rows, boolean endOfFile, List<ParsedRow> carry) {
+        List<ImportItem> items = new ArrayList<>(rows.size());
+        if (format != DataFormat.CSV) {
+            for (ParsedRow row : rows) {
+                items.add(new ImportItem(row.firstLine(), row.lastLine(), row.request(), row.error()));
+            }
+            return items;
+        }
+
+        int groupStart = 0;
+        for (int i = 1; i <= rows.size(); i++) {
+            if (i < rows.size() && sameExpense(rows.get(groupStart), rows.get(i))) {
+                continue;
+            }
+            if (i == rows.size() && !endOfFile) {
+                carry.addAll(rows.subList(groupStart, i));
+                break;
+            }
+            items.add(merge(rows.subList(groupStart, i)));
+            groupStart = i;
+        }
+        return items;
+    }
+
+    private boolean sameExpense(ParsedRow first, ParsedRow row) {
+        return first.groupKey() != null && first.groupKey().equals(row.groupKey());
+    }
+
+    private ImportItem merge(List<ParsedRow> rows) {
+        ParsedRow first = rows.get(0);
+        long lastLine = rows.get(rows.size() - 1).lastLine();
+        if (first.error() != null) {
+            return new ImportItem(first.firstLine(), lastLine, null, first.error());
+        }
+        CreateExpenseRequest request = first.request();
+        for (ParsedRow row : rows.subList(1, rows.size())) {
+            if (row.error() != null) {
+                String error = "Line " + row.firstLine() + ": " + row.error();
+                return new ImportItem(first.firstLine(), lastLine, null, error);
+            }
+            request.getSplits().addAll(row.request().getSplits());
+        }
+        return new ImportItem(first.firstLine(), lastLine, request, null);
+    }
+
+    private String field(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private Double decimal(List<String> fields, String column) {
+        String value = field(fields, column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " is not a number: " + value);
+        }
+    }
+
+    // One logical record; a CSV record with a quoted line break spans several physical lines
+    record RawRecord(long firstLine, long lastLine, String text) {
+    }
+
+    record ParsedRow(long firstLine, long lastLine, String groupKey, CreateExpenseRequest request, String error) {
+    }
+
+    // One expense to import, or the reason its lines were rejected
+    record ImportItem(long firstLine, long lastLine, CreateExpenseRequest request, String error) {
+        ImportItem rejected(String reason) {
+            return new ImportItem(firstLine, lastLine, null, reason);
+        }
+    }
+
+    // Reads records sequentially and counts physical lines, so a checkpoint can name the exact place to resume
+    static class RecordReader implements AutoCloseable {
+
+        private final BufferedReader reader;
+        private final DataFormat format;
+        private long lineNumber;
+
+        RecordReader(BufferedReader reader, DataFormat format) {
+            this.reader = reader;
+            this.format = format;
+        }
+
+        String readHeader() throws IOException {
+            String header = reader.readLine();
+            if (header != null) {
+                lineNumber++;
+            }
+            return header;
+        }
+
+        void skipTo(long line) throws IOException {
+            while (lineNumber < line) {
+                if (reader.readLine() == null) {
+                    throw new IllegalStateException("The file ends at line " + lineNumber
+                            + " but the checkpoint is at line " + line);
+                }
+                lineNumber++;
+            }
+        }
+
+        List<RawRecord> read(int maxRecords) throws IOException {
+            List<RawRecord> records = new ArrayList<>(maxRecords);
+            String line;
+            while (records.size() < maxRecords && (line = reader.readLine()) != null) {
+                long firstLine = ++lineNumber;
+                StringBuilder text = new StringBuilder(line);
+                while (format == DataFormat.CSV && Csv.isOpen(text.toString())) {
+                    String next = reader.readLine();
+                    if (next == null) {
+                        break;
+                    }
+                    lineNumber++;
+                    text.append('\n').append(next);
+                }
+                if (!text.toString().isBlank()) {
+                    records.add(new RawRecord(firstLine, lineNumber, text.toString()));
+                }
+            }
+            return records;
+        }
+
+        long getLineNumber() {
+            return lineNumber;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
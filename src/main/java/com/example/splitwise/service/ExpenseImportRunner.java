@@ -0,0 +1,61 @@
+package com.example.splitwise.service;
+
+import com.example.splitwise.dto.ImportReport;
+import com.example.splitwise.enums.DataFormat;
+import com.example.splitwise.enums.ImportStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+// Command-line import: with splitwise.import.file (or splitwise.import.resume-job-id) set, the application
+// imports the file once it has started and then exits, with status 0 only if the import completed
+@Slf4j
+@Component
+public class ExpenseImportRunner implements ApplicationRunner {
+
+    private final ExpenseImportService expenseImportService;
+    private final ConfigurableApplicationContext context;
+    private final String file;
+    private final DataFormat format;
+    private final String resumeJobId;
+
+    public ExpenseImportRunner(ExpenseImportService expenseImportService,
+                               ConfigurableApplicationContext context,
+                               @Value("${splitwise.import.file:}") String file,
+                               @Value("${splitwise.import.format:NDJSON}") DataFormat format,
+                               @Value("${splitwise.import.resume-job-id:}") String resumeJobId) {
+        this.expenseImportService = expenseImportService;
+        this.context = context;
+        this.file = file;
+        this.format = format;
+        this.resumeJobId = resumeJobId;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (file.isEmpty() && resumeJobId.isEmpty()) {
+            return;
+        }
+
+        ImportReport report = resumeJobId.isEmpty()
+                ? expenseImportService.importFile(Path.of(file), format, null)
+                : expenseImportService.resumeNow(resumeJobId);
+        log.info("Import {} {}: {} expenses imported, {} records rejected, {} lines committed. {}",
+                report.getJobId(), report.getStatus(), report.getExpensesImported(), report.getRowsRejected(),
+                report.getLinesCommitted(), report.getMessage());
+        report.getRejections().forEach(rejection ->
+                log.info("Rejected line {}: {}", rejection.getLineNumber(), rejection.getReason()));
+        if (report.getStatus() != ImportStatus.COMPLETED) {
+            log.info("Resume with --splitwise.import.resume-job-id={}", report.getJobId());
+        }
+
+        int exitCode = report.getStatus() == ImportStatus.COMPLETED ? 0 : 1;
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+}
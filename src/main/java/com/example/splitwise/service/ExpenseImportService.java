@@ -0,0 +1,321 @@
+package com.example.splitwise.service;
+
+import com.example.splitwise.dto.CreateExpenseRequest;
+import com.example.splitwise.dto.ImportRejectionDetail;
+import com.example.splitwise.dto.ImportReport;
+import com.example.splitwise.dto.SplitDetail;
+import com.example.splitwise.entities.ImportJob;
+import com.example.splitwise.enums.DataFormat;
+import com.example.splitwise.enums.ImportStatus;
+import com.example.splitwise.repository.ImportJobRepository;
+import com.example.splitwise.repository.ImportRejectionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
+
+// Bulk import of expenses from NDJSON or CSV files. The file is read once, front to back; each chunk of records is
+// parsed and validated on a bounded fork-join pool while the previous chunk commits, and is then written as one
+// ExpenseBatchService transaction together with the job's checkpoint.
+@Slf4j
+@Service
+public class ExpenseImportService {
+
+    private static final int MAX_REPORTED_REJECTIONS = 100;
+    // The same cap as POST /api/expenses/batch
+    private static final int MAX_CHUNK_SIZE = 1000;
+
+    private final ImportJobRepository importJobRepository;
+    private final ImportRejectionRepository importRejectionRepository;
+    private final ExpenseImportWriter expenseImportWriter;
+    private final ExpenseService expenseService;
+    private final ConcurrencyRetryPolicy concurrencyRetryPolicy;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int parallelism;
+    private final int defaultChunkSize;
+    private final Path workDir;
+
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "expense-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Jobs running in this process
+    private final Set<String> runningJobs = ConcurrentHashMap.newKeySet();
+
+    public ExpenseImportService(ImportJobRepository importJobRepository,
+                                ImportRejectionRepository importRejectionRepository,
+                                ExpenseImportWriter expenseImportWriter,
+                                ExpenseService expenseService,
+                                ConcurrencyRetryPolicy concurrencyRetryPolicy,
+                                ObjectMapper objectMapper,
+                                Validator validator,
+                                @Value("${splitwise.import.parallelism:0}") int parallelism,
+                                @Value("${splitwise.import.chunk-size:500}") int defaultChunkSize,
+                                @Value("${splitwise.import.work-dir:./data/imports}") Path workDir) {
+        this.importJobRepository = importJobRepository;
+        this.importRejectionRepository = importRejectionRepository;
+        this.expenseImportWriter = expenseImportWriter;
+        this.expenseService = expenseService;
+        this.concurrencyRetryPolicy = concurrencyRetryPolicy;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.defaultChunkSize = defaultChunkSize;
+        this.workDir = workDir;
+    }
+
+    // The multipart temp file is deleted when the request ends, so the job imports from its own copy,
+    // which also stays available for a resume
+    public ImportReport startUpload(MultipartFile file, DataFormat format, Integer chunkSize) {
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("The uploaded file is empty");
+        }
+        String jobId = UUID.randomUUID().toString();
+        Path copy = workDir.resolve(jobId + "." + format.getFileExtension());
+        try {
+            Files.createDirectories(workDir);
+            file.transferTo(copy.toAbsolutePath());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store the uploaded file", e);
+        }
+        ImportJob job = createJob(jobId, format, file.getOriginalFilename(), copy, chunkSize);
+        runner.submit(() -> run(job.getJobId()));
+        return getReport(job.getJobId());
+    }
+
+    public ImportReport resume(String jobId) {
+        checkResumable(jobId);
+        runner.submit(() -> run(jobId));
+        return getReport(jobId);
+    }
+
+    // Blocking variants for the command-line runner
+    public ImportReport importFile(Path path, DataFormat format, Integer chunkSize) {
+        if (!Files.isRegularFile(path)) {
+            throw new IllegalArgumentException("No such file: " + path);
+        }
+        ImportJob job = createJob(UUID.randomUUID().toString(), format, path.getFileName().toString(), path,
+                chunkSize);
+        run(job.getJobId());
+        return getReport(job.getJobId());
+    }
+
+    public ImportReport resumeNow(String jobId) {
+        checkResumable(jobId);
+        run(jobId);
+        return getReport(jobId);
+    }
+
+    public ImportReport getReport(String jobId) {
+        ImportJob job = importJobRepository.findByJobId(jobId)
+                .orElseThrow(() -> new IllegalArgumentException("Import not found with jobId: " + jobId));
+
+        // A job left RUNNING by a process that stopped is reported as failed; it can be resumed
+        ImportStatus status = job.getStatus();
+        String message = job.getMessage();
+        if (status == ImportStatus.RUNNING && !runningJobs.contains(jobId)) {
+            status = ImportStatus.FAILED;
+            message = "Interrupted before completing; resume to continue";
+        }
+
+        List<ImportRejectionDetail> rejections = new ArrayList<>();
+        importRejectionRepository.findByJobIdOrderByLineNumberAsc(jobId, PageRequest.of(0, MAX_REPORTED_REJECTIONS))
+                .forEach(rejection -> rejections.add(ImportRejectionDetail.builder()
+                        .lineNumber(rejection.getLineNumber())
+                        .reason(rejection.getReason())
+                        .build()));
+
+        return ImportReport.builder()
+                .jobId(job.getJobId())
+                .status(status)
+                .format(job.getFormat())
+                .sourceName(job.getSourceName())
+                .chunkSize(job.getChunkSize())
+                .linesCommitted(job.getLinesCommitted())
+                .expensesImported(job.getExpensesImported())
+                .rowsRejected(job.getRowsRejected())
+                .expensesPerSecond(expensesPerSecond(job))
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .updatedAt(job.getUpdatedAt())
+                .finishedAt(job.getFinishedAt())
+                .message(message)
+                .rejections(rejections)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+    }
+
+    private ImportJob createJob(String jobId, DataFormat format, String sourceName, Path path, Integer chunkSize) {
+        int size = chunkSize != null ? chunkSize : defaultChunkSize;
+        if (size < 1 || size > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("chunkSize must be between 1 and " + MAX_CHUNK_SIZE);
+        }
+        return expenseImportWriter.create(ImportJob.builder()
+                .jobId(jobId)
+                .format(format)
+                .sourceName(sourceName)
+                .sourcePath(path.toAbsolutePath().toString())
+                .fileSize(fileSize(path))
+                .chunkSize(size)
+                .status(ImportStatus.PENDING)
+                .createdAt(Instant.now())
+                .build());
+    }
+
+    private void checkResumable(String jobId) {
+        ImportJob job = importJobRepository.findByJobId(jobId)
+                .orElseThrow(() -> new IllegalArgumentException("Import not found with jobId: " + jobId));
+        if (job.getStatus() == ImportStatus.COMPLETED) {
+            throw new IllegalStateException("Import " + jobId + " has already completed");
+        }
+        if (runningJobs.contains(jobId)) {
+            throw new IllegalStateException("Import " + jobId + " is already running");
+        }
+    }
+
+    private void run(String jobId) {
+        if (!runningJobs.add(jobId)) {
+            return;
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            ImportJob job = importJobRepository.findByJobId(jobId).orElseThrow();
+            Path path = Path.of(job.getSourcePath());
+            if (fileSize(path) != job.getFileSize()) {
+                throw new IllegalStateException("The file " + path + " changed since the import was created");
+            }
+            job = expenseImportWriter.markRunning(jobId);
+            importRecords(job, path, pool);
+
+            job = importJobRepository.findByJobId(jobId).orElseThrow();
+            expenseImportWriter.finish(jobId, ImportStatus.COMPLETED, "Imported " + job.getExpensesImported()
+                    + " expenses, rejected " + job.getRowsRejected() + " records");
+            log.info("Import {} finished: {} expenses imported, {} records rejected",
+                    jobId, job.getExpensesImported(), job.getRowsRejected());
+        } catch (IOException | RuntimeException e) {
+            log.error("Import {} failed; it can be resumed from its last committed chunk", jobId, e);
+            expenseImportWriter.finish(jobId, ImportStatus.FAILED, e.getMessage());
+        } finally {
+            pool.shutdown();
+            runningJobs.remove(jobId);
+        }
+    }
+
+    private void importRecords(ImportJob job, Path path, ForkJoinPool pool) throws IOException {
+        int chunkSize = job.getChunkSize();
+        try (ExpenseImportParser.RecordReader reader = new ExpenseImportParser.RecordReader(
+                Files.newBufferedReader(path, StandardCharsets.UTF_8), job.getFormat())) {
+            String header = job.getFormat() == DataFormat.CSV ? reader.readHeader() : null;
+            ExpenseImportParser parser = new ExpenseImportParser(job.getFormat(), objectMapper, header);
+            reader.skipTo(job.getLinesCommitted());
+
+            // At most two chunks are in memory: the one being committed and the next one being parsed
+            List<ExpenseImportParser.ParsedRow> carry = new ArrayList<>();
+            ForkJoinTask<List<ExpenseImportParser.ParsedRow>> parsing = parse(parser, reader.read(chunkSize), pool);
+            while (true) {
+                List<ExpenseImportParser.ParsedRow> parsed = parsing.join();
+                if (parsed.isEmpty() && carry.isEmpty()) {
+                    break;
+                }
+                List<ExpenseImportParser.RawRecord> next = reader.read(chunkSize);
+                parsing = parse(parser, next, pool);
+
+                List<ExpenseImportParser.ParsedRow> rows = new ArrayList<>(carry.size() + parsed.size());
+                rows.addAll(carry);
+                rows.addAll(parsed);
+                carry = new ArrayList<>();
+                List<ExpenseImportParser.ImportItem> items = parser.group(rows, next.isEmpty(), carry);
+                if (items.isEmpty()) {
+                    continue;
+                }
+
+                List<ExpenseImportParser.ImportItem> validated = pool.submit(() -> items.parallelStream()
+                        .map(this::validate)
+                        .toList()).join();
+                long lastLine = validated.get(validated.size() - 1).lastLine();
+                concurrencyRetryPolicy.execute(
+                        () -> expenseImportWriter.commitChunk(job.getJobId(), validated, lastLine));
+                log.debug("Import {}: committed through line {}", job.getJobId(), lastLine);
+            }
+        }
+    }
+
+    private ForkJoinTask<List<ExpenseImportParser.ParsedRow>> parse(ExpenseImportParser parser,
+                                                                    List<ExpenseImportParser.RawRecord> records,
+                                                                    ForkJoinPool pool) {
+        return pool.submit(() -> records.parallelStream().map(parser::parse).toList());
+    }
+
+    // The checks that need no database: bean validation and the amount; the rest happens in the batch service
+    private ExpenseImportParser.ImportItem validate(ExpenseImportParser.ImportItem item) {
+        if (item.error() != null) {
+            return item;
+        }
+        CreateExpenseRequest request = item.request();
+        Set<ConstraintViolation<Object>> violations = new HashSet<>(validator.validate((Object) request));
+        if (request.getSplits() != null) {
+            for (SplitDetail split : request.getSplits()) {
+                violations.addAll(validator.validate((Object) split));
+            }
+        }
+        if (!violations.isEmpty()) {
+            return item.rejected(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .distinct()
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        try {
+            expenseService.toExpenseAmount(request.getExpenseAmount());
+        } catch (IllegalArgumentException e) {
+            return item.rejected(e.getMessage());
+        }
+        return item;
+    }
+
+    private double expensesPerSecond(ImportJob job) {
+        if (job.getStartedAt() == null || job.getUpdatedAt() == null) {
+            return 0;
+        }
+        long millis = Duration.between(job.getStartedAt(), job.getUpdatedAt()).toMillis();
+        return millis > 0 ? (job.getExpensesImported() - job.getExpensesBeforeRun()) * 1000.0 / millis : 0;
+    }
+
+    private long fileSize(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + path, e);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.splitwise.service;
+
+import com.example.splitwise.dto.BatchExpenseItemResult;
+import com.example.splitwise.dto.CreateExpenseRequest;
+import com.example.splitwise.entities.ImportJob;
+import com.example.splitwise.entities.ImportRejection;
+import com.example.splitwise.enums.ImportStatus;
+import com.example.splitwise.repository.ImportJobRepository;
+import com.example.splitwise.repository.ImportRejectionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+// Transactional side of ExpenseImportService, kept in its own bean so each call goes through the proxy
+@Service
+@RequiredArgsConstructor
+public class ExpenseImportWriter {
+
+    private static final int MAX_REASON_LENGTH = 1000;
+
+    private final ExpenseBatchService expenseBatchService;
+    private final ImportJobRepository importJobRepository;
+    private final ImportRejectionRepository importRejectionRepository;
+
+    // The chunk's expenses, its rejected rows and the job checkpoint commit together: after a failure the job
+    // resumes right after the last chunk that reached the database, and nothing is imported twice
+    @Transactional
+    public long commitChunk(String jobId, List<ExpenseImportParser.ImportItem> items, long lastLine) {
+        ImportJob job = getJob(jobId);
+        List<ImportRejection> rejections = new ArrayList<>();
+        List<ExpenseImportParser.ImportItem> accepted = new ArrayList<>(items.size());
+        List<CreateExpenseRequest> requests = new ArrayList<>(items.size());
+        for (ExpenseImportParser.ImportItem item : items) {
+            if (item.error() != null) {
+                rejections.add(rejection(jobId, item));
+            } else {
+                accepted.add(item);
+                requests.add(item.request());
+            }
+        }
+
+        // One transaction and one JDBC batch per chunk, with the same per-expense checks as the API
+        long imported = 0;
+        if (!requests.isEmpty()) {
+            for (BatchExpenseItemResult result : expenseBatchService.createExpenses(requests)) {
+                if (result.isSuccess()) {
+                    imported++;
+                } else {
+                    rejections.add(rejection(jobId, accepted.get(result.getIndex()).rejected(result.getMessage())));
+                }
+            }
+        }
+        importRejectionRepository.saveAll(rejections);
+
+        job.setLinesCommitted(lastLine);
+        job.setExpensesImported(job.getExpensesImported() + imported);
+        job.setRowsRejected(job.getRowsRejected() + rejections.size());
+        job.setUpdatedAt(Instant.now());
+        return imported;
+    }
+
+    @Transactional
+    public ImportJob create(ImportJob job) {
+        return importJobRepository.save(job);
+    }
+
+    @Transactional
+    public ImportJob markRunning(String jobId) {
+        ImportJob job = getJob(jobId);
+        Instant now = Instant.now();
+        job.setStatus(ImportStatus.RUNNING);
+        job.setMessage(null);
+        job.setExpensesBeforeRun(job.getExpensesImported());
+        job.setStartedAt(now);
+        job.setUpdatedAt(now);
+        job.setFinishedAt(null);
+        return job;
+    }
+
+    @Transactional
+    public ImportJob finish(String jobId, ImportStatus status, String message) {
+        ImportJob job = getJob(jobId);
+        Instant now = Instant.now();
+        job.setStatus(status);
+        job.setMessage(truncate(message));
+        job.setUpdatedAt(now);
+        job.setFinishedAt(now);
+        return job;
+    }
+
+    private ImportJob getJob(String jobId) {
+        return importJobRepository.findByJobId(jobId)
+                .orElseThrow(() -> new IllegalArgumentException("Import not found with jobId: " + jobId));
+    }
+
+    private ImportRejection rejection(String jobId, ExpenseImportParser.ImportItem item) {
+        return ImportRejection.builder()
+                .jobId(jobId)
+                .lineNumber(item.firstLine())
+                .reason(truncate(item.error()))
+                .build();
+    }
+
+    private String truncate(String text) {
+        return text != null && text.length() > MAX_REASON_LENGTH ? text.substring(0, MAX_REASON_LENGTH) : text;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.splitwise.service;
+
+import com.example.splitwise.dto.ExpenseEventPayload;
+import com.example.splitwise.entities.OutboxEvent;
+import com.example.splitwise.enums.OutboxEventType;
+import com.example.splitwise.util.Money;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+// Tells each participant what they owe for a new expense. Logs for now; swap in a mail or push sender here.
+@Slf4j
+@Component
+public class ExpenseNotificationListener implements OutboxListener {
+
+    @Override
+    public boolean supports(OutboxEventType eventType) {
+        return eventType == OutboxEventType.EXPENSE_CREATED;
+    }
+
+    @Override
+    public void onEvent(OutboxEvent event, ExpenseEventPayload payload) {
+        payload.getAmountOweByUserId().forEach((userId, amountOwe) -> {
+            if (!userId.equals(payload.getPaidByUserId()) && amountOwe != 0) {
+                log.info("Notify {}: you owe {} to {} for expense {}",
+                        userId, Money.toMajor(amountOwe), payload.getPaidByUserId(), payload.getExpenseId());
+            }
+        });
+    }
+}
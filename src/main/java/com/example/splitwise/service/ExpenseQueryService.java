@@ -0,0 +1,127 @@
+package com.example.splitwise.service;
+
+import com.example.splitwise.dto.CursorPage;
+import com.example.splitwise.dto.ExpenseResponse;
+import com.example.splitwise.dto.ExpenseSearchRequest;
+import com.example.splitwise.dto.SplitDetail;
+import com.example.splitwise.repository.ExpenseRepository;
+import com.example.splitwise.repository.ExpenseSearchFilter;
+import com.example.splitwise.repository.SplitRepository;
+import com.example.splitwise.repository.projection.ExpenseRow;
+import com.example.splitwise.repository.projection.SplitRow;
+import com.example.splitwise.util.Money;
+import com.example.splitwise.util.Pagination;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Read side of expenses: every response is built from two projection queries (expense rows, then their splits)
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ExpenseQueryService {
+
+    private final ExpenseRepository expenseRepository;
+    private final SplitRepository splitRepository;
+
+    public ExpenseResponse getExpense(String expenseId) {
+        ExpenseRow row = expenseRepository.findRowByExpenseId(expenseId)
+                .orElseThrow(() -> new IllegalArgumentException("Expense not found with expenseId: " + expenseId));
+        return toResponses(List.of(row)).get(0);
+    }
+
+    public CursorPage<ExpenseResponse> getExpenses(String cursor, int limit) {
+        int pageSize = Pagination.clampLimit(limit);
+        List<ExpenseRow> rows = expenseRepository.findRowsAfter(
+                Pagination.afterId(cursor), Pagination.probe(pageSize));
+        return toPage(rows, pageSize);
+    }
+
+    public CursorPage<ExpenseResponse> getExpensesByGroup(String groupId, String cursor, int limit) {
+        int pageSize = Pagination.clampLimit(limit);
+        List<ExpenseRow> rows = expenseRepository.findRowsByGroupAfter(
+                groupId, Pagination.afterId(cursor), Pagination.probe(pageSize));
+        return toPage(rows, pageSize);
+    }
+
+    public CursorPage<ExpenseResponse> getExpensesByUser(String userId, String cursor, int limit) {
+        int pageSize = Pagination.clampLimit(limit);
+        List<ExpenseRow> rows = expenseRepository.findRowsByPaidByAfter(
+                userId, Pagination.afterId(cursor), Pagination.probe(pageSize));
+        return toPage(rows, pageSize);
+    }
+
+    // Newest first by occurredAt; the cursor carries the last row's (occurredAt, id)
+    public CursorPage<ExpenseResponse> searchExpenses(ExpenseSearchRequest request, String cursor, int limit) {
+        int pageSize = Pagination.clampLimit(limit);
+        List<ExpenseRow> rows = expenseRepository.search(
+                toFilter(request), Pagination.parseTimeCursor(cursor), pageSize + 1);
+        CursorPage<ExpenseRow> page = CursorPage.of(rows, pageSize,
+                row -> Pagination.timeCursor(row.getOccurredAt(), row.getId()));
+        return new CursorPage<>(toResponses(page.getItems()), page.getNextCursor(), page.isHasMore());
+    }
+
+    private ExpenseSearchFilter toFilter(ExpenseSearchRequest request) {
+        if (request.getFrom() != null && request.getTo() != null && !request.getFrom().isBefore(request.getTo())) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        Long minAmount = request.getMinAmount() != null ? Money.toMinor(request.getMinAmount()) : null;
+        Long maxAmount = request.getMaxAmount() != null ? Money.toMinor(request.getMaxAmount()) : null;
+        if (minAmount != null && maxAmount != null && minAmount > maxAmount) {
+            throw new IllegalArgumentException("minAmount must not be greater than maxAmount");
+        }
+        return new ExpenseSearchFilter(request.getFrom(), request.getTo(), minAmount, maxAmount,
+                blankToNull(request.getGroupId()), blankToNull(request.getPaidByUserId()),
+                blankToNull(request.getParticipantUserId()), blankToNull(request.getDescriptionPrefix()));
+    }
+
+    private String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private CursorPage<ExpenseResponse> toPage(List<ExpenseRow> rows, int pageSize) {
+        CursorPage<ExpenseRow> page = CursorPage.of(rows, pageSize, ExpenseRow::getId);
+        return new CursorPage<>(toResponses(page.getItems()), page.getNextCursor(), page.isHasMore());
+    }
+
+    List<ExpenseResponse> toResponses(List<ExpenseRow> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (ExpenseRow row : rows) {
+            ids.add(row.getId());
+        }
+
+        Map<Long, List<SplitDetail>> splitsByExpense = new HashMap<>();
+        for (SplitRow split : splitRepository.findRowsByExpenseIds(ids)) {
+            splitsByExpense.computeIfAbsent(split.getExpenseId(), id -> new ArrayList<>())
+                    .add(SplitDetail.builder()
+                            .userId(split.getUserId())
+                            .amount(Money.toMajor(split.getAmountOwe()))
+                            .build());
+        }
+
+        List<ExpenseResponse> responses = new ArrayList<>(rows.size());
+        for (ExpenseRow row : rows) {
+            responses.add(ExpenseResponse.builder()
+                    .expenseId(row.getExpenseId())
+                    .description(row.getDescription())
+                    .expenseAmount(Money.toMajor(row.getExpenseAmount()))
+                    .paidByUserId(row.getPaidByUserId())
+                    .splitType(row.getSplitType())
+                    .splits(splitsByExpense.getOrDefault(row.getId(), List.of()))
+                    .groupId(row.getGroupId())
+                    .createdAt(row.getCreatedAt())
+                    .occurredAt(row.getOccurredAt())
+                    .build());
+        }
+        return responses;
+    }
+}
@@ -1,18 +1,35 @@
 package com.example.splitwise.service;
 
+import com.example.splitwise.dto.CreateExpenseRequest;
+import com.example.splitwise.dto.SplitDetail;
 import com.example.splitwise.entities.Expense;
+import com.example.splitwise.entities.Group;
 import com.example.splitwise.entities.Split;
 import com.example.splitwise.entities.User;
 import com.example.splitwise.enums.ExpenseSplitType;
+import com.example.splitwise.enums.OutboxEventType;
+import com.example.splitwise.metrics.ExpenseMetrics;
 import com.example.splitwise.repository.ExpenseRepository;
 import com.example.splitwise.strategy.ExpenseSplit;
 import com.example.splitwise.strategy.SplitFactory;
+import com.example.splitwise.util.Money;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -20,21 +37,25 @@ public class ExpenseService {
 
     private final ExpenseRepository expenseRepository;
     private final SplitFactory splitFactory;
-    private final BalanceSheetService balanceSheetService;
+    private final LedgerService ledgerService;
     private final UserService userService;
+    private final SettlementService settlementService;
+    private final ExpenseMetrics expenseMetrics;
+    private final OutboxService outboxService;
+    private final IdempotencyService idempotencyService;
+    private final SpendingRollupService spendingRollupService;
+    private final GroupService groupService;
 
     @Transactional
-    public Expense createExpense(String expenseId, String description, Double expenseAmount,
-                                 List<Split> splits, ExpenseSplitType splitType, String paidByUserId) {
-        
-        if (expenseRepository.existsByExpenseId(expenseId)) {
-            throw new IllegalArgumentException("Expense with expenseId " + expenseId + " already exists");
-        }
-
+    public Expense createExpense(String expenseId, String description, long expenseAmount,
+                                 List<Split> splits, ExpenseSplitType splitType, String paidByUserId,
+                                 Instant occurredAt) {
+        // A duplicate expenseId is rejected by the unique constraint when the transaction flushes
         User paidBy = userService.getUserById(paidByUserId);
 
         ExpenseSplit expenseSplit = splitFactory.getSplitObject(splitType);
-        expenseSplit.validateSplitRequest(splits, expenseAmount);
+        expenseMetrics.timeStage(ExpenseMetrics.STAGE_VALIDATE,
+                () -> expenseSplit.validateSplitRequest(splits, expenseAmount));
 
         Expense expense = Expense.builder()
                 .expenseId(expenseId)
@@ -44,29 +65,40 @@ public class ExpenseService {
                 .splitType(splitType)
                 .splits(splits)
                 .build();
+        stampTimes(expense, occurredAt);
 
         // Set expense reference in splits
         for (Split split : splits) {
             split.setExpense(expense);
         }
 
-        Expense savedExpense = expenseRepository.save(expense);
+        // Flushed inside the stage so the timer covers the expense and split inserts, not just queueing them
+        Expense savedExpense = expenseMetrics.timeStage(ExpenseMetrics.STAGE_PERSIST,
+                () -> expenseRepository.saveAndFlush(expense));
 
-        // Update balance sheets
-        balanceSheetService.updateUserExpenseBalanceSheet(paidBy, splits, expenseAmount);
+        // Record balance deltas; the balance sheets are updated from the ledger
+        expenseMetrics.timeStage(ExpenseMetrics.STAGE_LEDGER, () -> ledgerService.recordExpense(savedExpense));
+        spendingRollupService.recordExpenses(List.of(savedExpense));
+        outboxService.recordExpenseEvents(OutboxEventType.EXPENSE_CREATED, List.of(savedExpense));
+        idempotencyService.recordCreatedExpense(savedExpense);
+        expenseMetrics.recordCreated(splitType, splits.size());
 
         return savedExpense;
     }
 
     @Transactional
-    public Expense createExpenseWithGroup(String expenseId, String description, Double expenseAmount,
+    public Expense createExpenseWithGroup(String expenseId, String description, long expenseAmount,
                                          List<Split> splits, ExpenseSplitType splitType, 
-                                         String paidByUserId, com.example.splitwise.entities.Group group) {
+                                         String paidByUserId, com.example.splitwise.entities.Group group,
+                                         Instant occurredAt) {
         
         User paidBy = userService.getUserById(paidByUserId);
-        
+        // One indexed lookup for payer and participants together
+        groupService.requireMembers(group, participantUserIds(paidByUserId, splits));
+
         ExpenseSplit expenseSplit = splitFactory.getSplitObject(splitType);
-        expenseSplit.validateSplitRequest(splits, expenseAmount);
+        expenseMetrics.timeStage(ExpenseMetrics.STAGE_VALIDATE,
+                () -> expenseSplit.validateSplitRequest(splits, expenseAmount));
 
         Expense expense = Expense.builder()
                 .expenseId(expenseId)
@@ -77,35 +109,216 @@ public class ExpenseService {
                 .splits(splits)
                 .group(group)
                 .build();
+        stampTimes(expense, occurredAt);
 
         // Set expense reference in splits
         for (Split split : splits) {
             split.setExpense(expense);
         }
 
+        // Flushed inside the stage so the timer covers the expense and split inserts, not just queueing them
+        Expense savedExpense = expenseMetrics.timeStage(ExpenseMetrics.STAGE_PERSIST,
+                () -> expenseRepository.saveAndFlush(expense));
+
+        // Record balance deltas; the balance sheets are updated from the ledger
+        expenseMetrics.timeStage(ExpenseMetrics.STAGE_LEDGER, () -> ledgerService.recordExpense(savedExpense));
+        spendingRollupService.recordExpenses(List.of(savedExpense));
+        outboxService.recordExpenseEvents(OutboxEventType.EXPENSE_CREATED, List.of(savedExpense));
+        idempotencyService.recordCreatedExpense(savedExpense);
+        expenseMetrics.recordCreated(splitType, splits.size());
+        settlementService.onGroupExpenseCreated(group.getGroupId(), paidByUserId, expenseAmount, splits);
+
+        return savedExpense;
+    }
+
+    // Rewrites an expense in place and applies only the difference from its previous version to the ledger,
+    // balances and rollups, so the cost grows with the splits that changed rather than with any user's history
+    @Transactional
+    public Expense updateExpense(String expenseId, String description, long expenseAmount,
+                                 List<Split> splits, ExpenseSplitType splitType, String paidByUserId,
+                                 Group group, Instant occurredAt) {
+        Expense expense = getExpenseById(expenseId);
+        User paidBy = userService.getUserById(paidByUserId);
+
+        if (group != null) {
+            groupService.requireMembers(group, participantUserIds(paidByUserId, splits));
+        }
+        splitFactory.getSplitObject(splitType).validateSplitRequest(splits, expenseAmount);
+
+        Expense previous = copyOf(expense);
+        expense.setDescription(description);
+        expense.setExpenseAmount(expenseAmount);
+        expense.setPaidBy(paidBy);
+        expense.setSplitType(splitType);
+        expense.setGroup(group);
+        if (occurredAt != null) {
+            expense.setOccurredAt(occurredAt.truncatedTo(ChronoUnit.MICROS));
+        }
+        replaceSplits(expense, splits);
+
         Expense savedExpense = expenseRepository.save(expense);
 
-        // Update balance sheets
-        balanceSheetService.updateUserExpenseBalanceSheet(paidBy, splits, expenseAmount);
+        ledgerService.recordExpenseChange(previous, savedExpense);
+        spendingRollupService.recordExpenseChange(previous, savedExpense);
+        outboxService.recordExpenseEvents(OutboxEventType.EXPENSE_UPDATED, List.of(savedExpense));
+        if (previous.getGroup() != null) {
+            settlementService.onGroupExpenseRemoved(previous.getGroup().getGroupId(),
+                    previous.getPaidBy().getUserId(), previous.getExpenseAmount(), previous.getSplits());
+        }
+        if (group != null) {
+            settlementService.onGroupExpenseCreated(group.getGroupId(), paidByUserId, expenseAmount,
+                    savedExpense.getSplits());
+        }
 
         return savedExpense;
     }
 
+    @Transactional
+    public void deleteExpense(String expenseId) {
+        Expense expense = getExpenseById(expenseId);
+
+        ledgerService.recordExpenseChange(expense, null);
+        spendingRollupService.recordExpenseChange(expense, null);
+        outboxService.recordExpenseEvents(OutboxEventType.EXPENSE_DELETED, List.of(expense));
+        if (expense.getGroup() != null) {
+            settlementService.onGroupExpenseRemoved(expense.getGroup().getGroupId(),
+                    expense.getPaidBy().getUserId(), expense.getExpenseAmount(), expense.getSplits());
+        }
+
+        expenseRepository.delete(expense);
+    }
+
     public Expense getExpenseById(String expenseId) {
         return expenseRepository.findByExpenseId(expenseId)
                 .orElseThrow(() -> new IllegalArgumentException("Expense not found with expenseId: " + expenseId));
     }
 
-    public List<Expense> getExpensesByGroup(String groupId) {
-        return expenseRepository.findByGroup_GroupId(groupId);
+    public boolean expenseExists(String expenseId) {
+        return expenseRepository.existsByExpenseId(expenseId);
     }
 
-    public List<Expense> getExpensesByUser(String userId) {
-        return expenseRepository.findByPaidBy_UserId(userId);
+    public List<Split> buildSplits(CreateExpenseRequest request, Function<String, User> userResolver) {
+        ExpenseSplitType splitType = request.getSplitType();
+        ExpenseSplit expenseSplit = splitFactory.getSplitObject(splitType);
+        long expenseAmount = toExpenseAmount(request.getExpenseAmount());
+
+        List<Split> splits = new ArrayList<>();
+
+        if (splitType == ExpenseSplitType.EQUAL) {
+            if (request.getUserIds() == null || request.getUserIds().isEmpty()) {
+                throw new IllegalArgumentException("User IDs are required for EQUAL split");
+            }
+            List<User> users = request.getUserIds().stream()
+                    .map(userResolver)
+                    .collect(Collectors.toList());
+            splits = expenseSplit.validateAndGetSplits(users, null, expenseAmount);
+        } else {
+            if (request.getSplits() == null || request.getSplits().isEmpty()) {
+                throw new IllegalArgumentException("Split details are required for " + splitType + " split");
+            }
+
+            if (splitType == ExpenseSplitType.PERCENTAGE) {
+                List<User> users = request.getSplits().stream()
+                        .map(split -> userResolver.apply(split.getUserId()))
+                        .collect(Collectors.toList());
+                // Percentages with two decimals become basis points
+                long[] percentages = new long[request.getSplits().size()];
+                for (int i = 0; i < percentages.length; i++) {
+                    percentages[i] = Money.toMinor(request.getSplits().get(i).getAmount());
+                }
+                splits = expenseSplit.validateAndGetSplits(users, percentages, expenseAmount);
+            } else {
+                // UNEQUAL or EXACT
+                for (SplitDetail splitDetail : request.getSplits()) {
+                    User user = userResolver.apply(splitDetail.getUserId());
+                    splits.add(new Split(user, Money.toMinor(splitDetail.getAmount())));
+                }
+                expenseSplit.validateSplitRequest(splits, expenseAmount);
+            }
+        }
+
+        return splits;
+    }
+
+    // Every user id an expense request refers to, payer included
+    public Set<String> collectUserIds(CreateExpenseRequest request) {
+        Set<String> userIds = new HashSet<>();
+        userIds.add(request.getPaidByUserId());
+        if (request.getUserIds() != null) {
+            userIds.addAll(request.getUserIds());
+        }
+        if (request.getSplits() != null) {
+            for (SplitDetail splitDetail : request.getSplits()) {
+                userIds.add(splitDetail.getUserId());
+            }
+        }
+        return userIds;
     }
 
-    public List<Expense> getAllExpenses() {
-        return expenseRepository.findAll();
+    public Set<String> participantUserIds(String paidByUserId, List<Split> splits) {
+        Set<String> userIds = new HashSet<>();
+        userIds.add(paidByUserId);
+        for (Split split : splits) {
+            userIds.add(split.getUser().getUserId());
+        }
+        return userIds;
+    }
+
+    // Detached copy of the fields that feed balances and rollups, taken before an expense is changed
+    private Expense copyOf(Expense expense) {
+        List<Split> splits = new ArrayList<>(expense.getSplits().size());
+        for (Split split : expense.getSplits()) {
+            splits.add(new Split(split.getUser(), split.getAmountOwe()));
+        }
+        return Expense.builder()
+                .expenseId(expense.getExpenseId())
+                .expenseAmount(expense.getExpenseAmount())
+                .paidBy(expense.getPaidBy())
+                .group(expense.getGroup())
+                .occurredAt(expense.getOccurredAt())
+                .splits(splits)
+                .build();
+    }
+
+    // Keeps the split rows of users still on the expense and only inserts or deletes the rest
+    private void replaceSplits(Expense expense, List<Split> splits) {
+        Map<String, Deque<Split>> existingByUserId = new HashMap<>();
+        for (Split split : expense.getSplits()) {
+            existingByUserId.computeIfAbsent(split.getUser().getUserId(), id -> new ArrayDeque<>()).add(split);
+        }
+
+        List<Split> replaced = new ArrayList<>(splits.size());
+        for (Split split : splits) {
+            Deque<Split> existing = existingByUserId.get(split.getUser().getUserId());
+            Split kept = existing != null ? existing.poll() : null;
+            if (kept != null) {
+                kept.setAmountOwe(split.getAmountOwe());
+                replaced.add(kept);
+            } else {
+                split.setExpense(expense);
+                replaced.add(split);
+            }
+        }
+
+        // Same collection instance, so orphan removal deletes the splits that were dropped
+        expense.getSplits().clear();
+        expense.getSplits().addAll(replaced);
+    }
+
+    // Kept at microseconds, the column precision, so values read back equal the ones written and search cursors
+    // built from them match exactly
+    public void stampTimes(Expense expense, Instant occurredAt) {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        expense.setCreatedAt(now);
+        expense.setOccurredAt(occurredAt != null ? occurredAt.truncatedTo(ChronoUnit.MICROS) : now);
+    }
+
+    public long toExpenseAmount(Double amount) {
+        long expenseAmount = Money.toMinor(amount);
+        if (expenseAmount <= 0) {
+            throw new IllegalArgumentException("Expense amount must be at least 0.01");
+        }
+        return expenseAmount;
     }
 
     public String generateExpenseId() {
@@ -0,0 +1,209 @@
+package com.example.splitwise.service;
+
+import com.example.splitwise.dto.BalanceSheetTotals;
+import com.example.splitwise.dto.ExpenseResponse;
+import com.example.splitwise.dto.PairBalance;
+import com.example.splitwise.dto.SplitDetail;
+import com.example.splitwise.entities.UserExpenseBalanceSheet;
+import com.example.splitwise.enums.DataFormat;
+import com.example.splitwise.repository.BalanceSheetRepository;
+import com.example.splitwise.repository.ExpenseRepository;
+import com.example.splitwise.repository.PairwiseBalanceRepository;
+import com.example.splitwise.repository.projection.ExpenseRow;
+import com.example.splitwise.repository.projection.PairNet;
+import com.example.splitwise.util.Csv;
+import com.example.splitwise.util.Money;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Full-table exports written straight to the response as they are read. Every table is walked with a
+// forward-only cursor and written a chunk at a time, so memory use does not grow with the number of rows.
+@Service
+@Transactional(readOnly = true)
+public class ExportService {
+
+    static final String EXPENSES_CSV_HEADER = Csv.row("expenseId", "description", "expenseAmount", "paidByUserId",
+            "splitType", "groupId", "createdAt", "occurredAt", "splitUserId", "splitAmount");
+
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseQueryService expenseQueryService;
+    private final BalanceSheetRepository balanceSheetRepository;
+    private final PairwiseBalanceRepository pairwiseBalanceRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public ExportService(ExpenseRepository expenseRepository,
+                         ExpenseQueryService expenseQueryService,
+                         BalanceSheetRepository balanceSheetRepository,
+                         PairwiseBalanceRepository pairwiseBalanceRepository,
+                         EntityManager entityManager,
+                         ObjectMapper objectMapper,
+                         @Value("${splitwise.export.chunk-size:500}") int chunkSize) {
+        this.expenseRepository = expenseRepository;
+        this.expenseQueryService = expenseQueryService;
+        this.balanceSheetRepository = balanceSheetRepository;
+        this.pairwiseBalanceRepository = pairwiseBalanceRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    // One line per expense in NDJSON, shaped like GET /api/expenses/{expenseId}; one line per split in CSV
+    public void exportExpenses(DataFormat format, OutputStream out) {
+        Writer writer = writerFor(out);
+        if (format == DataFormat.CSV) {
+            writeLine(writer, EXPENSES_CSV_HEADER);
+        }
+
+        // Expense rows come from the cursor; the splits of each chunk are then read with one IN query
+        try (Stream<ExpenseRow> rows = expenseRepository.streamRows()) {
+            Iterator<ExpenseRow> iterator = rows.iterator();
+            List<ExpenseRow> chunk = new ArrayList<>(chunkSize);
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == chunkSize || !iterator.hasNext()) {
+                    for (ExpenseResponse expense : expenseQueryService.toResponses(chunk)) {
+                        if (format == DataFormat.CSV) {
+                            writeExpenseCsv(writer, expense);
+                        } else {
+                            writeJson(writer, expense);
+                        }
+                    }
+                    chunk.clear();
+                    flush(writer);
+                }
+            }
+        }
+        flush(writer);
+    }
+
+    public void exportBalanceSheets(DataFormat format, OutputStream out) {
+        Writer writer = writerFor(out);
+        if (format == DataFormat.CSV) {
+            writeLine(writer, Csv.row("userId", "totalPayment", "totalYourExpense", "totalYouGetBack", "totalYouOwe"));
+        }
+
+        try (Stream<UserExpenseBalanceSheet> sheets = balanceSheetRepository.streamAllWithUser()) {
+            int inChunk = 0;
+            for (Iterator<UserExpenseBalanceSheet> iterator = sheets.iterator(); iterator.hasNext(); ) {
+                UserExpenseBalanceSheet sheet = iterator.next();
+                if (format == DataFormat.CSV) {
+                    writeLine(writer, Csv.row(sheet.getUser().getUserId(),
+                            Money.format(sheet.getTotalPayment()), Money.format(sheet.getTotalYourExpense()),
+                            Money.format(sheet.getTotalYouGetBack()), Money.format(sheet.getTotalYouOwe())));
+                } else {
+                    writeJson(writer, BalanceSheetTotals.builder()
+                            .userId(sheet.getUser().getUserId())
+                            .totalPayment(Money.toMajor(sheet.getTotalPayment()))
+                            .totalYourExpense(Money.toMajor(sheet.getTotalYourExpense()))
+                            .totalYouGetBack(Money.toMajor(sheet.getTotalYouGetBack()))
+                            .totalYouOwe(Money.toMajor(sheet.getTotalYouOwe()))
+                            .build());
+                }
+
+                // Sheets are entities, so drop them from the persistence context once written
+                if (++inChunk == chunkSize) {
+                    entityManager.clear();
+                    flush(writer);
+                    inChunk = 0;
+                }
+            }
+        }
+        flush(writer);
+    }
+
+    // Every non-zero pair once, as who owes whom
+    public void exportPairwiseBalances(DataFormat format, OutputStream out) {
+        Writer writer = writerFor(out);
+        if (format == DataFormat.CSV) {
+            writeLine(writer, Csv.row("fromUserId", "toUserId", "amount"));
+        }
+
+        try (Stream<PairNet> pairs = pairwiseBalanceRepository.streamNonZero()) {
+            int inChunk = 0;
+            for (Iterator<PairNet> iterator = pairs.iterator(); iterator.hasNext(); ) {
+                PairNet pair = iterator.next();
+                // A positive amount is what the high user owes the low user
+                String fromUserId = pair.getAmount() > 0 ? pair.getHighUserId() : pair.getLowUserId();
+                String toUserId = pair.getAmount() > 0 ? pair.getLowUserId() : pair.getHighUserId();
+                long amount = Math.abs(pair.getAmount());
+                if (format == DataFormat.CSV) {
+                    writeLine(writer, Csv.row(fromUserId, toUserId, Money.format(amount)));
+                } else {
+                    writeJson(writer, PairBalance.builder()
+                            .fromUserId(fromUserId)
+                            .toUserId(toUserId)
+                            .amount(Money.toMajor(amount))
+                            .build());
+                }
+                if (++inChunk == chunkSize) {
+                    flush(writer);
+                    inChunk = 0;
+                }
+            }
+        }
+        flush(writer);
+    }
+
+    private void writeExpenseCsv(Writer writer, ExpenseResponse expense) {
+        List<SplitDetail> splits = expense.getSplits().isEmpty()
+                ? List.of(new SplitDetail(null, null))
+                : expense.getSplits();
+        for (SplitDetail split : splits) {
+            writeLine(writer, Csv.row(expense.getExpenseId(), expense.getDescription(),
+                    decimal(expense.getExpenseAmount()), expense.getPaidByUserId(), expense.getSplitType(),
+                    expense.getGroupId(), expense.getCreatedAt(), expense.getOccurredAt(),
+                    split.getUserId(), decimal(split.getAmount())));
+        }
+    }
+
+    // Responses carry major-unit Doubles; print them with exactly two places
+    private String decimal(Double amount) {
+        return amount != null ? Money.format(Money.toMinor(amount)) : null;
+    }
+
+    private void writeJson(Writer writer, Object value) {
+        try {
+            writeLine(writer, objectMapper.writeValueAsString(value));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Writer writerFor(OutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    private void writeLine(Writer writer, String line) {
+        try {
+            writer.write(line);
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void flush(Writer writer) {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
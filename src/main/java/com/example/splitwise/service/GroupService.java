@@ -1,14 +1,26 @@
 package com.example.splitwise.service;
 
+import com.example.splitwise.dto.CursorPage;
 import com.example.splitwise.entities.Group;
 import com.example.splitwise.entities.User;
 import com.example.splitwise.repository.GroupRepository;
-import com.example.splitwise.service.UserService;
+import com.example.splitwise.repository.projection.GroupMember;
+import com.example.splitwise.util.Pagination;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -29,7 +41,7 @@ public class GroupService {
                 .groupId(groupId)
                 .groupName(groupName)
                 .createdBy(createdBy)
-                .members(new java.util.ArrayList<>())
+                .members(new LinkedHashSet<>())
                 .expenses(new java.util.ArrayList<>())
                 .build();
 
@@ -43,8 +55,19 @@ public class GroupService {
                 .orElseThrow(() -> new IllegalArgumentException("Group not found with groupId: " + groupId));
     }
 
-    public List<Group> getAllGroups() {
-        return groupRepository.findAll();
+    public Map<String, Group> findGroupsByGroupIds(Collection<String> groupIds) {
+        if (groupIds.isEmpty()) {
+            return Map.of();
+        }
+        return groupRepository.findByGroupIdIn(groupIds).stream()
+                .collect(Collectors.toMap(Group::getGroupId, Function.identity()));
+    }
+
+    public CursorPage<Group> getGroups(String cursor, int limit) {
+        int pageSize = Pagination.clampLimit(limit);
+        List<Group> groups = groupRepository.findByIdGreaterThanOrderByIdAsc(
+                Pagination.afterId(cursor), Pagination.probe(pageSize));
+        return CursorPage.of(groups, pageSize, Group::getId);
     }
 
     @Transactional
@@ -52,8 +75,10 @@ public class GroupService {
         Group group = getGroupById(groupId);
         User user = userService.getUserById(userId);
 
-        group.addMember(user);
-        return groupRepository.save(group);
+        if (!groupRepository.isMember(group.getId(), user.getId())) {
+            groupRepository.insertMember(group.getId(), user.getId());
+        }
+        return group;
     }
 
     @Transactional
@@ -61,8 +86,55 @@ public class GroupService {
         Group group = getGroupById(groupId);
         User user = userService.getUserById(userId);
 
-        group.removeMember(user);
-        return groupRepository.save(group);
+        groupRepository.deleteMember(group.getId(), user.getId());
+        return group;
+    }
+
+    public List<String> getMemberUserIds(Group group) {
+        return groupRepository.findMemberUserIds(group.getId());
     }
-}
 
+    // Member ids of many groups keyed by groupId, in one query; groups without members are absent
+    public Map<String, List<String>> getMemberUserIds(Collection<Group> groups) {
+        if (groups.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> ids = groups.stream().map(Group::getId).toList();
+        Map<String, List<String>> memberIdsByGroupId = new HashMap<>();
+        for (GroupMember member : groupRepository.findMembersOfGroups(ids)) {
+            memberIdsByGroupId.computeIfAbsent(member.getGroupId(), id -> new ArrayList<>()).add(member.getUserId());
+        }
+        return memberIdsByGroupId;
+    }
+
+    // Which of the given users belong to each of the given groups, in one query
+    public Map<String, Set<String>> findMembers(Collection<String> groupIds, Collection<String> userIds) {
+        if (groupIds.isEmpty() || userIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, Set<String>> membersByGroupId = new HashMap<>();
+        for (GroupMember member : groupRepository.findMembers(groupIds, userIds)) {
+            membersByGroupId.computeIfAbsent(member.getGroupId(), id -> new HashSet<>()).add(member.getUserId());
+        }
+        return membersByGroupId;
+    }
+
+    public void requireMembers(Group group, Collection<String> userIds) {
+        requireMembers(group, userIds, findMembers(List.of(group.getGroupId()), userIds));
+    }
+
+    // Rejects an expense whose payer or participants are not all members of its group
+    public void requireMembers(Group group, Collection<String> userIds, Map<String, Set<String>> membersByGroupId) {
+        Set<String> members = membersByGroupId.getOrDefault(group.getGroupId(), Set.of());
+        Set<String> outsiders = new TreeSet<>();
+        for (String userId : userIds) {
+            if (!members.contains(userId)) {
+                outsiders.add(userId);
+            }
+        }
+        if (!outsiders.isEmpty()) {
+            throw new IllegalArgumentException("Users are not members of group " + group.getGroupId() + ": "
+                    + String.join(", ", outsiders));
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.splitwise.service;
+
+import com.example.splitwise.dto.ExpenseResponse;
+import com.example.splitwise.entities.Expense;
+import com.example.splitwise.entities.IdempotencyRecord;
+import com.example.splitwise.repository.IdempotencyRecordRepository;
+import com.example.splitwise.util.ExpenseMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+
+// Idempotency-Key support. There is no lookup on the happy path: the record is inserted with the expense and a
+// retry trips the unique key at commit, after which the caller replays the stored response.
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final String PENDING_KEY_ATTRIBUTE = IdempotencyService.class.getName() + ".pendingKey";
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              ObjectMapper objectMapper,
+                              @Value("${splitwise.idempotency.ttl-hours:24}") long ttlHours) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofHours(ttlHours);
+    }
+
+    public String hashRequest(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not hash request", e);
+        }
+    }
+
+    // Remembers the key for the current HTTP request, so the expense write that follows stores its response under it
+    public void bindToCurrentRequest(String idempotencyKey, String requestHash) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        RequestAttributes attributes = RequestContextHolder.currentRequestAttributes();
+        attributes.setAttribute(PENDING_KEY_ATTRIBUTE, new PendingKey(idempotencyKey, requestHash),
+                RequestAttributes.SCOPE_REQUEST);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreatedExpense(Expense expense) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return;
+        }
+        PendingKey pendingKey = (PendingKey) attributes.getAttribute(PENDING_KEY_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (pendingKey == null) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        idempotencyRecordRepository.save(IdempotencyRecord.builder()
+                .idempotencyKey(pendingKey.key())
+                .requestHash(pendingKey.requestHash())
+                .responseBody(writeResponse(ExpenseMapper.toResponse(expense)))
+                .createdAt(now)
+                .expiresAt(now.plus(ttl))
+                .build());
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<IdempotencyRecord> findByKey(String idempotencyKey) {
+        return idempotencyRecordRepository.findByIdempotencyKey(idempotencyKey);
+    }
+
+    public ExpenseResponse readResponse(IdempotencyRecord record) {
+        try {
+            return objectMapper.readValue(record.getResponseBody(), ExpenseResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable stored response for key " + record.getIdempotencyKey(), e);
+        }
+    }
+
+    // Records are kept for at least the TTL; an expired one still replays until it is purged
+    @Scheduled(fixedDelayString = "${splitwise.idempotency.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        int purged = idempotencyRecordRepository.deleteExpired(Instant.now());
+        if (purged > 0) {
+            log.debug("Purged {} expired idempotency records", purged);
+        }
+    }
+
+    private String writeResponse(ExpenseResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize response for expense " + response.getExpenseId(), e);
+        }
+    }
+
+    private record PendingKey(String key, String requestHash) {
+    }
+}
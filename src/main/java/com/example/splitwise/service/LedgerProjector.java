@@ -0,0 +1,43 @@
+package com.example.splitwise.service;
+
+import com.example.splitwise.enums.LedgerProjectionMode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Drains pending ledger entries into the balance sheets. In SYNC mode it only runs once, to apply
+// entries left pending by an earlier ASYNC run; in ASYNC mode it keeps polling.
+@Slf4j
+@Component
+public class LedgerProjector {
+
+    private final LedgerService ledgerService;
+    private final ConcurrencyRetryPolicy concurrencyRetryPolicy;
+    private final int batchSize;
+    private volatile boolean drainedOnce;
+
+    public LedgerProjector(LedgerService ledgerService,
+                           ConcurrencyRetryPolicy concurrencyRetryPolicy,
+                           @Value("${splitwise.ledger.projector.batch-size:500}") int batchSize) {
+        this.ledgerService = ledgerService;
+        this.concurrencyRetryPolicy = concurrencyRetryPolicy;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${splitwise.ledger.projector.interval-ms:200}")
+    public void projectPending() {
+        if (drainedOnce && ledgerService.getProjectionMode() == LedgerProjectionMode.SYNC) {
+            return;
+        }
+
+        int projected;
+        do {
+            projected = concurrencyRetryPolicy.execute(() -> ledgerService.projectPending(batchSize));
+            if (projected > 0) {
+                log.debug("Projected {} ledger entries into balance sheets", projected);
+            }
+        } while (projected == batchSize);
+        drainedOnce = true;
+    }
+}
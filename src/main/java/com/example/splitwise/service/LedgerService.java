@@ -0,0 +1,142 @@
+package com.example.splitwise.service;
+
+import com.example.splitwise.entities.Expense;
+import com.example.splitwise.entities.LedgerEntry;
+import com.example.splitwise.entities.PairwiseBalanceId;
+import com.example.splitwise.entities.Split;
+import com.example.splitwise.entities.UserExpenseBalanceSheet;
+import com.example.splitwise.enums.LedgerProjectionMode;
+import com.example.splitwise.repository.LedgerEntryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+@Service
+public class LedgerService {
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final BalanceSheetService balanceSheetService;
+    private final LedgerProjectionMode projectionMode;
+
+    public LedgerService(LedgerEntryRepository ledgerEntryRepository,
+                         BalanceSheetService balanceSheetService,
+                         @Value("${splitwise.ledger.projection-mode:SYNC}") LedgerProjectionMode projectionMode) {
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.balanceSheetService = balanceSheetService;
+        this.projectionMode = projectionMode;
+    }
+
+    @Transactional
+    public void recordExpense(Expense expense) {
+        recordExpenses(List.of(expense));
+    }
+
+    // Appends one delta per split; in SYNC mode the deltas are also folded into the balance sheets right away
+    @Transactional
+    public void recordExpenses(List<Expense> expenses) {
+        boolean sync = projectionMode == LedgerProjectionMode.SYNC;
+        Instant now = Instant.now();
+        List<LedgerEntry> entries = new ArrayList<>();
+        Map<String, UserExpenseBalanceSheet> touchedSheets = new TreeMap<>();
+        SortedMap<PairwiseBalanceId, Long> pairDeltas = new TreeMap<>();
+
+        for (Expense expense : expenses) {
+            for (Split split : expense.getSplits()) {
+                if (split.getAmountOwe() == 0) {
+                    continue;
+                }
+                entries.add(LedgerEntry.builder()
+                        .expenseId(expense.getExpenseId())
+                        .payerUserId(expense.getPaidBy().getUserId())
+                        .participantUserId(split.getUser().getUserId())
+                        .amount(split.getAmountOwe())
+                        .applied(sync)
+                        .createdAt(now)
+                        .build());
+            }
+            if (sync) {
+                balanceSheetService.applyExpense(expense.getPaidBy(), expense.getSplits(), touchedSheets, pairDeltas);
+            }
+        }
+
+        ledgerEntryRepository.saveAll(entries);
+        if (sync) {
+            balanceSheetService.saveBalanceSheets(touchedSheets.values(), pairDeltas);
+        }
+    }
+
+    // Appends only the difference between two versions of an expense, one entry per payer and participant whose
+    // amount changed; either version may be null for a create or a delete. Unchanged splits write nothing.
+    @Transactional
+    public void recordExpenseChange(Expense previous, Expense current) {
+        Map<Leg, Long> deltas = new LinkedHashMap<>();
+        if (previous != null) {
+            addLegs(deltas, previous, -1);
+        }
+        if (current != null) {
+            addLegs(deltas, current, 1);
+        }
+
+        String expenseId = current != null ? current.getExpenseId() : previous.getExpenseId();
+        Instant now = Instant.now();
+        List<LedgerEntry> entries = new ArrayList<>();
+        deltas.forEach((leg, amount) -> {
+            if (amount != 0) {
+                entries.add(LedgerEntry.builder()
+                        .expenseId(expenseId)
+                        .payerUserId(leg.payerUserId())
+                        .participantUserId(leg.participantUserId())
+                        .amount(amount)
+                        .applied(false)
+                        .createdAt(now)
+                        .build());
+            }
+        });
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        // Entries are marked applied as they are folded in
+        if (projectionMode == LedgerProjectionMode.SYNC) {
+            balanceSheetService.applyLedgerEntries(entries);
+        }
+        ledgerEntryRepository.saveAll(entries);
+    }
+
+    private void addLegs(Map<Leg, Long> deltas, Expense expense, int sign) {
+        String payerUserId = expense.getPaidBy().getUserId();
+        for (Split split : expense.getSplits()) {
+            deltas.merge(new Leg(payerUserId, split.getUser().getUserId()), sign * split.getAmountOwe(), Long::sum);
+        }
+    }
+
+    // Folds the oldest pending entries into the balance sheets and returns how many were applied
+    @Transactional
+    public int projectPending(int batchSize) {
+        List<LedgerEntry> pending = ledgerEntryRepository.findByAppliedFalseOrderByIdAsc(PageRequest.of(0, batchSize));
+        if (!pending.isEmpty()) {
+            balanceSheetService.applyLedgerEntries(pending);
+        }
+        return pending.size();
+    }
+
+    public long countPending() {
+        return ledgerEntryRepository.countByAppliedFalse();
+    }
+
+    public LedgerProjectionMode getProjectionMode() {
+        return projectionMode;
+    }
+
+    private record Leg(String payerUserId, String participantUserId) {
+    }
+}
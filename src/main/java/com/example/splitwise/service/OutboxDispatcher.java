@@ -0,0 +1,140 @@
+package com.example.splitwise.service;
+
+import com.example.splitwise.dto.ExpenseEventPayload;
+import com.example.splitwise.entities.OutboxEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Drains the outbox on a scheduler thread, so listeners never run on the request path. Events are marked
+// dispatched only after every listener accepted them.
+@Slf4j
+@Component
+public class OutboxDispatcher {
+
+    private final OutboxService outboxService;
+    private final List<OutboxListener> listeners;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final long maxBackoffMillis;
+    private final Duration retention;
+
+    private final AtomicLong pendingEvents = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Counter dispatched;
+    private final Counter failures;
+
+    public OutboxDispatcher(OutboxService outboxService,
+                            List<OutboxListener> listeners,
+                            MeterRegistry meterRegistry,
+                            @Value("${splitwise.outbox.batch-size:200}") int batchSize,
+                            @Value("${splitwise.outbox.max-attempts:10}") int maxAttempts,
+                            @Value("${splitwise.outbox.backoff-ms:1000}") long backoffMillis,
+                            @Value("${splitwise.outbox.max-backoff-ms:300000}") long maxBackoffMillis,
+                            @Value("${splitwise.outbox.retention-hours:168}") long retentionHours) {
+        this.outboxService = outboxService;
+        this.listeners = listeners;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.retention = Duration.ofHours(retentionHours);
+
+        Gauge.builder("splitwise.outbox.pending", pendingEvents, AtomicLong::get)
+                .description("Outbox events waiting for delivery, as of the last poll")
+                .register(meterRegistry);
+        Gauge.builder("splitwise.outbox.lag.seconds", lagMillis, millis -> millis.get() / 1000.0)
+                .description("Age of the oldest undelivered outbox event, as of the last poll")
+                .register(meterRegistry);
+        this.dispatched = Counter.builder("splitwise.outbox.dispatched")
+                .description("Outbox events delivered to every listener")
+                .register(meterRegistry);
+        this.failures = Counter.builder("splitwise.outbox.failures")
+                .description("Failed outbox deliveries")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${splitwise.outbox.interval-ms:500}")
+    public void dispatchPending() {
+        // Failed events stay pending, so each poll walks forward by id and retries them once their backoff elapses
+        long afterId = 0;
+        int fetched;
+        do {
+            List<OutboxEvent> events = outboxService.findDue(afterId, batchSize);
+            fetched = events.size();
+
+            List<Long> delivered = new ArrayList<>(fetched);
+            for (OutboxEvent event : events) {
+                if (deliver(event)) {
+                    delivered.add(event.getId());
+                }
+                afterId = event.getId();
+            }
+            outboxService.markDispatched(delivered);
+            dispatched.increment(delivered.size());
+        } while (fetched == batchSize);
+
+        updateLag();
+    }
+
+    private boolean deliver(OutboxEvent event) {
+        try {
+            ExpenseEventPayload payload = outboxService.readPayload(event);
+            for (OutboxListener listener : listeners) {
+                if (listener.supports(event.getEventType())) {
+                    deliveryTimer(listener).record(() -> listener.onEvent(event, payload));
+                }
+            }
+            return true;
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("Delivery of outbox event {} ({}) failed on attempt {}",
+                    event.getId(), event.getEventType(), event.getAttempts() + 1, e);
+            outboxService.markFailed(event, e.getMessage(), maxAttempts, Instant.now().plusMillis(backoff(event)));
+            return false;
+        }
+    }
+
+    // Dispatched and parked rows are kept for the retention window, then deleted so the table stays small
+    @Scheduled(fixedDelayString = "${splitwise.outbox.purge-interval-ms:3600000}")
+    public void purgeDispatched() {
+        int purged = outboxService.purgeDispatchedBefore(Instant.now().minus(retention));
+        if (purged > 0) {
+            log.info("Purged {} dispatched outbox events older than {}", purged, retention);
+        }
+    }
+
+    // Exponential backoff from the attempt count recorded before this failure, capped at maxBackoffMillis
+    private long backoff(OutboxEvent event) {
+        int shift = Math.min(event.getAttempts(), 30);
+        return Math.min(maxBackoffMillis, backoffMillis << shift);
+    }
+
+    private void updateLag() {
+        pendingEvents.set(outboxService.countPending());
+        lagMillis.set(outboxService.findOldestPending()
+                .map(event -> Duration.between(event.getCreatedAt(), Instant.now()).toMillis())
+                .orElse(0L));
+    }
+
+    private Timer deliveryTimer(OutboxListener listener) {
+        return Timer.builder("splitwise.outbox.delivery")
+                .description("Time spent in each outbox listener")
+                .tag("listener", listener.getClass().getSimpleName())
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.splitwise.service;
+
+import com.example.splitwise.dto.ExpenseEventPayload;
+import com.example.splitwise.entities.OutboxEvent;
+import com.example.splitwise.enums.OutboxEventType;
+
+// In-process consumer of outbox events. Delivery is at-least-once, so implementations must tolerate
+// seeing the same event id again after a crash or a failure in another listener.
+public interface OutboxListener {
+
+    boolean supports(OutboxEventType eventType);
+
+    void onEvent(OutboxEvent event, ExpenseEventPayload payload);
+}
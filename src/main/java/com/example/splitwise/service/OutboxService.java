@@ -0,0 +1,120 @@
+package com.example.splitwise.service;
+
+import com.example.splitwise.dto.ExpenseEventPayload;
+import com.example.splitwise.entities.Expense;
+import com.example.splitwise.entities.OutboxEvent;
+import com.example.splitwise.entities.Split;
+import com.example.splitwise.enums.OutboxEventType;
+import com.example.splitwise.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    // Must join the caller's transaction: the event commits or rolls back together with the expense
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordExpenseEvents(OutboxEventType eventType, List<Expense> expenses) {
+        Instant now = Instant.now();
+        List<OutboxEvent> events = new ArrayList<>(expenses.size());
+        for (Expense expense : expenses) {
+            events.add(OutboxEvent.builder()
+                    .eventType(eventType)
+                    .aggregateId(expense.getExpenseId())
+                    .payload(writePayload(toPayload(expense)))
+                    .createdAt(now)
+                    .build());
+        }
+        outboxEventRepository.saveAll(events);
+    }
+
+    // Pending events whose retry backoff has elapsed
+    @Transactional(readOnly = true)
+    public List<OutboxEvent> findDue(long afterId, int batchSize) {
+        return outboxEventRepository.findDue(afterId, Instant.now(), PageRequest.of(0, batchSize));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<OutboxEvent> findOldestPending() {
+        return outboxEventRepository.findFirstByDispatchedFalseOrderByIdAsc();
+    }
+
+    public long countPending() {
+        return outboxEventRepository.countByDispatchedFalse();
+    }
+
+    @Transactional
+    public void markDispatched(Collection<Long> eventIds) {
+        if (!eventIds.isEmpty()) {
+            outboxEventRepository.markDispatched(eventIds, Instant.now());
+        }
+    }
+
+    // Records a failed delivery and holds the event back until nextAttemptAt; once the event has used up its
+    // attempts it is parked as dispatched with its error
+    @Transactional
+    public void markFailed(OutboxEvent event, String error, int maxAttempts, Instant nextAttemptAt) {
+        event.setAttempts(event.getAttempts() + 1);
+        event.setLastError(error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        event.setNextAttemptAt(nextAttemptAt);
+        if (event.getAttempts() >= maxAttempts) {
+            event.setDispatched(true);
+            event.setDispatchedAt(Instant.now());
+        }
+        outboxEventRepository.save(event);
+    }
+
+    @Transactional
+    public int purgeDispatchedBefore(Instant cutoff) {
+        return outboxEventRepository.deleteDispatchedBefore(cutoff);
+    }
+
+    public ExpenseEventPayload readPayload(OutboxEvent event) {
+        try {
+            return objectMapper.readValue(event.getPayload(), ExpenseEventPayload.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable payload for outbox event " + event.getId(), e);
+        }
+    }
+
+    private ExpenseEventPayload toPayload(Expense expense) {
+        Map<String, Long> amountOweByUserId = new LinkedHashMap<>();
+        for (Split split : expense.getSplits()) {
+            amountOweByUserId.merge(split.getUser().getUserId(), split.getAmountOwe(), Long::sum);
+        }
+        return ExpenseEventPayload.builder()
+                .expenseId(expense.getExpenseId())
+                .groupId(expense.getGroup() != null ? expense.getGroup().getGroupId() : null)
+                .paidByUserId(expense.getPaidBy().getUserId())
+                .expenseAmount(expense.getExpenseAmount())
+                .amountOweByUserId(amountOweByUserId)
+                .build();
+    }
+
+    private String writePayload(ExpenseEventPayload payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize outbox payload for expense " + payload.getExpenseId(), e);
+        }
+    }
+}
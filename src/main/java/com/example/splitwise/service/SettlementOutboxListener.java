@@ -0,0 +1,27 @@
+package com.example.splitwise.service;
+
+import com.example.splitwise.dto.ExpenseEventPayload;
+import com.example.splitwise.entities.OutboxEvent;
+import com.example.splitwise.enums.OutboxEventType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+// Recomputes a group's settlement transfers after each of its expenses, so GET /settlements finds them ready
+@Component
+@RequiredArgsConstructor
+public class SettlementOutboxListener implements OutboxListener {
+
+    private final SettlementService settlementService;
+
+    @Override
+    public boolean supports(OutboxEventType eventType) {
+        return true;
+    }
+
+    @Override
+    public void onEvent(OutboxEvent event, ExpenseEventPayload payload) {
+        if (payload.getGroupId() != null) {
+            settlementService.getSettlements(payload.getGroupId());
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.splitwise.service;
+
+import com.example.splitwise.dto.PairBalance;
+import com.example.splitwise.dto.SettlementTransfer;
+import com.example.splitwise.entities.Split;
+import com.example.splitwise.repository.ExpenseRepository;
+import com.example.splitwise.repository.SplitRepository;
+import com.example.splitwise.repository.projection.PairAmount;
+import com.example.splitwise.repository.projection.UserAmount;
+import com.example.splitwise.util.Money;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class SettlementService {
+
+    // Write trackers are striped by group id so their number stays fixed; groups sharing a stripe only make each
+    // other's loads skip caching more often
+    private static final int TRACKER_STRIPES = 1024;
+
+    private final ExpenseRepository expenseRepository;
+    private final SplitRepository splitRepository;
+    private final GroupService groupService;
+
+    // Bounded; an evicted group is simply reloaded by its next read
+    private final ConcurrentMap<String, GroupPositions> positionsByGroup;
+    private final GroupWriteTracker[] writeTrackers = new GroupWriteTracker[TRACKER_STRIPES];
+
+    public SettlementService(ExpenseRepository expenseRepository,
+                             SplitRepository splitRepository,
+                             GroupService groupService,
+                             @Value("${splitwise.settlement-cache.max-size:10000}") long maxSize) {
+        this.expenseRepository = expenseRepository;
+        this.splitRepository = splitRepository;
+        this.groupService = groupService;
+        this.positionsByGroup = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .<String, GroupPositions>build()
+                .asMap();
+        for (int i = 0; i < TRACKER_STRIPES; i++) {
+            writeTrackers[i] = new GroupWriteTracker();
+        }
+    }
+
+    public List<SettlementTransfer> getSettlements(String groupId) {
+        GroupPositions positions = positionsByGroup.get(groupId);
+        if (positions == null) {
+            positions = loadPositions(groupId);
+        }
+        if (positions.transfers() != null) {
+            return positions.transfers();
+        }
+
+        GroupPositions settled = positions.withTransfers(computeTransfers(positions.netPositions()));
+        positionsByGroup.replace(groupId, positions, settled);
+        return settled.transfers();
+    }
+
+    // Net debt between every pair of group members, from one GROUP BY over the group's splits
+    public List<PairBalance> getPairwiseBalances(String groupId) {
+        groupService.getGroupById(groupId);
+
+        // Key each pair by its two ids in sorted order; a positive net means the first id owes the second
+        Map<String, Map<String, Long>> netByPair = new TreeMap<>();
+        for (PairAmount owed : splitRepository.sumOwedByPairInGroup(groupId)) {
+            String participant = owed.getParticipantUserId();
+            String payer = owed.getPayerUserId();
+            if (participant.compareTo(payer) < 0) {
+                netByPair.computeIfAbsent(participant, id -> new TreeMap<>()).merge(payer, owed.getAmount(), Long::sum);
+            } else {
+                netByPair.computeIfAbsent(payer, id -> new TreeMap<>()).merge(participant, -owed.getAmount(), Long::sum);
+            }
+        }
+
+        List<PairBalance> balances = new ArrayList<>();
+        netByPair.forEach((first, counterparts) -> counterparts.forEach((second, net) -> {
+            if (net != 0) {
+                balances.add(PairBalance.builder()
+                        .fromUserId(net > 0 ? first : second)
+                        .toUserId(net > 0 ? second : first)
+                        .amount(Money.toMajor(Math.abs(net)))
+                        .build());
+            }
+        }));
+        return balances;
+    }
+
+    // Applies a group expense to the cached net positions once the surrounding transaction commits
+    public void onGroupExpenseCreated(String groupId, String paidByUserId, long expenseAmount, List<Split> splits) {
+        applyOnCommit(groupId, positionDeltas(paidByUserId, expenseAmount, splits, 1));
+    }
+
+    // Takes an edited or deleted expense back out of the cached net positions once the transaction commits
+    public void onGroupExpenseRemoved(String groupId, String paidByUserId, long expenseAmount, List<Split> splits) {
+        applyOnCommit(groupId, positionDeltas(paidByUserId, expenseAmount, splits, -1));
+    }
+
+    private Map<String, Long> positionDeltas(String paidByUserId, long expenseAmount, List<Split> splits, int sign) {
+        Map<String, Long> deltas = new HashMap<>();
+        deltas.merge(paidByUserId, sign * expenseAmount, Long::sum);
+        for (Split split : splits) {
+            deltas.merge(split.getUser().getUserId(), -sign * split.getAmountOwe(), Long::sum);
+        }
+        return deltas;
+    }
+
+    private void applyOnCommit(String groupId, Map<String, Long> deltas) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applyDeltas(groupId, deltas);
+            return;
+        }
+
+        GroupWriteTracker tracker = trackerFor(groupId);
+        tracker.pending.incrementAndGet();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    applyDeltas(groupId, deltas);
+                    tracker.epoch.incrementAndGet();
+                }
+                tracker.pending.decrementAndGet();
+            }
+        });
+    }
+
+    private GroupPositions loadPositions(String groupId) {
+        groupService.getGroupById(groupId);
+
+        GroupWriteTracker tracker = trackerFor(groupId);
+        long epoch = tracker.epoch.get();
+        boolean quiet = tracker.pending.get() == 0;
+
+        Map<String, Long> netPositions = new HashMap<>();
+        for (UserAmount paid : expenseRepository.sumPaidByGroup(groupId)) {
+            netPositions.merge(paid.getUserId(), paid.getAmount(), Long::sum);
+        }
+        for (UserAmount owed : splitRepository.sumOwedByGroup(groupId)) {
+            netPositions.merge(owed.getUserId(), -owed.getAmount(), Long::sum);
+        }
+        GroupPositions positions = new GroupPositions(Collections.unmodifiableMap(netPositions), null);
+
+        // Only cache when no expense for this group was in flight while we read, so deltas are never applied twice
+        if (quiet && tracker.pending.get() == 0 && tracker.epoch.get() == epoch
+                && positionsByGroup.putIfAbsent(groupId, positions) == null) {
+            // A write that registered after the check above may have committed before the put, finding no entry
+            // to update, or may update our entry although the read already saw it. Either way the entry is
+            // unreliable, so drop it, together with any delta applied on top of it, and let the next read reload.
+            if (tracker.pending.get() != 0 || tracker.epoch.get() != epoch) {
+                positionsByGroup.remove(groupId);
+            }
+        }
+        return positions;
+    }
+
+    private GroupWriteTracker trackerFor(String groupId) {
+        return writeTrackers[Math.floorMod(groupId.hashCode(), TRACKER_STRIPES)];
+    }
+
+    private void applyDeltas(String groupId, Map<String, Long> deltas) {
+        positionsByGroup.computeIfPresent(groupId, (id, positions) -> {
+            Map<String, Long> netPositions = new HashMap<>(positions.netPositions());
+            deltas.forEach((userId, delta) -> netPositions.merge(userId, delta, Long::sum));
+            return new GroupPositions(Collections.unmodifiableMap(netPositions), null);
+        });
+    }
+
+    // Greedy settlement: repeatedly match the largest creditor with the largest debtor, O(n log n)
+    static List<SettlementTransfer> computeTransfers(Map<String, Long> netPositions) {
+        PriorityQueue<Position> creditors = new PriorityQueue<>();
+        PriorityQueue<Position> debtors = new PriorityQueue<>();
+        netPositions.forEach((userId, net) -> {
+            if (net > 0) {
+                creditors.add(new Position(userId, net));
+            } else if (net < 0) {
+                debtors.add(new Position(userId, -net));
+            }
+        });
+
+        List<SettlementTransfer> transfers = new ArrayList<>();
+        while (!creditors.isEmpty() && !debtors.isEmpty()) {
+            Position creditor = creditors.poll();
+            Position debtor = debtors.poll();
+            long amount = Math.min(creditor.amount(), debtor.amount());
+
+            transfers.add(SettlementTransfer.builder()
+                    .fromUserId(debtor.userId())
+                    .toUserId(creditor.userId())
+                    .amount(Money.toMajor(amount))
+                    .build());
+
+            if (creditor.amount() > amount) {
+                creditors.add(new Position(creditor.userId(), creditor.amount() - amount));
+            }
+            if (debtor.amount() > amount) {
+                debtors.add(new Position(debtor.userId(), debtor.amount() - amount));
+            }
+        }
+        return Collections.unmodifiableList(transfers);
+    }
+
+    private record Position(String userId, long amount) implements Comparable<Position> {
+        @Override
+        public int compareTo(Position other) {
+            int byAmount = Long.compare(other.amount, amount);
+            return byAmount != 0 ? byAmount : userId.compareTo(other.userId);
+        }
+    }
+
+    private record GroupPositions(Map<String, Long> netPositions, List<SettlementTransfer> transfers) {
+        GroupPositions withTransfers(List<SettlementTransfer> transfers) {
+            return new GroupPositions(netPositions, transfers);
+        }
+    }
+
+    private static class GroupWriteTracker {
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicLong epoch = new AtomicLong();
+    }
+}
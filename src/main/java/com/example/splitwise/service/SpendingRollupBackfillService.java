@@ -0,0 +1,129 @@
+package com.example.splitwise.service;
+
+import com.example.splitwise.dto.RollupBackfillReport;
+import com.example.splitwise.entities.SpendingRollup;
+import com.example.splitwise.entities.SpendingRollupId;
+import com.example.splitwise.repository.ExpenseRepository;
+import com.example.splitwise.repository.SpendingRollupRepository;
+import com.example.splitwise.repository.SplitRepository;
+import com.example.splitwise.repository.projection.ExpenseSpend;
+import com.example.splitwise.repository.projection.ShareSpend;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// Brings the rollups in line with the stored expenses, e.g. for data written before rollups existed.
+// Expected rollups and the stored ones are read from one repeatable-read snapshot, and the difference is then
+// added as increments, so expenses written while the backfill runs are neither lost nor counted twice.
+@Slf4j
+@Service
+public class SpendingRollupBackfillService {
+
+    private static final int WRITE_BATCH_SIZE = 500;
+
+    private final ExpenseRepository expenseRepository;
+    private final SplitRepository splitRepository;
+    private final SpendingRollupRepository spendingRollupRepository;
+    private final SpendingRollupService spendingRollupService;
+    private final TransactionTemplate snapshotTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public SpendingRollupBackfillService(ExpenseRepository expenseRepository,
+                                         SplitRepository splitRepository,
+                                         SpendingRollupRepository spendingRollupRepository,
+                                         SpendingRollupService spendingRollupService,
+                                         PlatformTransactionManager transactionManager) {
+        this.expenseRepository = expenseRepository;
+        this.splitRepository = splitRepository;
+        this.spendingRollupRepository = spendingRollupRepository;
+        this.spendingRollupService = spendingRollupService;
+
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    public RollupBackfillReport backfill() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A rollup backfill is already running");
+        }
+        try {
+            long startedAt = System.currentTimeMillis();
+            AtomicLong expensesScanned = new AtomicLong();
+            AtomicLong splitsScanned = new AtomicLong();
+            AtomicLong rollupsChecked = new AtomicLong();
+
+            List<SpendingRollup> corrections = snapshotTransaction.execute(status ->
+                    computeCorrections(expensesScanned, splitsScanned, rollupsChecked));
+            for (int from = 0; from < corrections.size(); from += WRITE_BATCH_SIZE) {
+                List<SpendingRollup> batch = corrections.subList(
+                        from, Math.min(from + WRITE_BATCH_SIZE, corrections.size()));
+                writeTransaction.executeWithoutResult(status -> spendingRollupRepository.increment(batch));
+            }
+
+            RollupBackfillReport report = RollupBackfillReport.builder()
+                    .expensesScanned(expensesScanned.get())
+                    .splitsScanned(splitsScanned.get())
+                    .rollupsChecked(rollupsChecked.get())
+                    .rollupsCorrected(corrections.size())
+                    .durationMillis(System.currentTimeMillis() - startedAt)
+                    .build();
+            log.info("Rollup backfill corrected {} of {} rollups from {} expenses in {} ms",
+                    report.getRollupsCorrected(), report.getRollupsChecked(), report.getExpensesScanned(),
+                    report.getDurationMillis());
+            return report;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // Returned in key order, so each write batch locks its rows in the same order as regular writes
+    private List<SpendingRollup> computeCorrections(AtomicLong expensesScanned, AtomicLong splitsScanned,
+                                                    AtomicLong rollupsChecked) {
+        Map<SpendingRollupId, SpendingRollup> expected = new TreeMap<>();
+        try (Stream<ExpenseSpend> expenses = expenseRepository.streamSpend()) {
+            expenses.forEach(expense -> {
+                spendingRollupService.addExpense(expected, expense.getPaidByUserId(), expense.getGroupId(),
+                        expense.getOccurredAt(), expense.getExpenseAmount(), 1);
+                expensesScanned.incrementAndGet();
+            });
+        }
+        try (Stream<ShareSpend> shares = splitRepository.streamShares()) {
+            shares.forEach(share -> {
+                spendingRollupService.addShare(expected, share.getUserId(), share.getOccurredAt(),
+                        share.getAmountOwe(), 1);
+                splitsScanned.incrementAndGet();
+            });
+        }
+
+        // Turn expected into expected minus stored; whatever is not zero afterwards needs correcting
+        try (Stream<SpendingRollup> stored = spendingRollupRepository.streamAll()) {
+            stored.forEach(rollup -> {
+                expected.computeIfAbsent(rollup.id(), id -> new SpendingRollup(id.getScopeType(), id.getScopeId(),
+                                id.getGranularity(), id.getPeriodStart(), 0, 0, 0))
+                        .add(-rollup.getShareAmount(), -rollup.getPaidAmount(), -rollup.getExpenseCount());
+                rollupsChecked.incrementAndGet();
+            });
+        }
+
+        List<SpendingRollup> corrections = new ArrayList<>();
+        for (SpendingRollup delta : expected.values()) {
+            if (!delta.isEmpty()) {
+                corrections.add(delta);
+            }
+        }
+        return corrections;
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.splitwise.service;
+
+import com.example.splitwise.dto.SpendingBucket;
+import com.example.splitwise.dto.SpendingResponse;
+import com.example.splitwise.entities.Expense;
+import com.example.splitwise.entities.SpendingRollup;
+import com.example.splitwise.entities.SpendingRollupId;
+import com.example.splitwise.entities.Split;
+import com.example.splitwise.enums.RollupGranularity;
+import com.example.splitwise.enums.RollupScope;
+import com.example.splitwise.repository.SpendingRollupRepository;
+import com.example.splitwise.util.Money;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Daily and monthly spend per user and per group, kept up to date by the transaction that writes each expense
+@Service
+public class SpendingRollupService {
+
+    private static final int MAX_DAY_BUCKETS = 366;
+    private static final int MAX_MONTH_BUCKETS = 120;
+
+    private final SpendingRollupRepository spendingRollupRepository;
+    private final ZoneId zoneId;
+
+    public SpendingRollupService(SpendingRollupRepository spendingRollupRepository,
+                                 @Value("${splitwise.rollup.zone-id:UTC}") ZoneId zoneId) {
+        this.spendingRollupRepository = spendingRollupRepository;
+        this.zoneId = zoneId;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordExpenses(List<Expense> expenses) {
+        Map<SpendingRollupId, SpendingRollup> deltas = new TreeMap<>();
+        for (Expense expense : expenses) {
+            addExpenseTree(deltas, expense, 1);
+        }
+        spendingRollupRepository.increment(deltas.values());
+    }
+
+    // Takes the previous version out and adds the current one; either may be null for a create or a delete.
+    // Buckets whose totals come out unchanged are not written.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordExpenseChange(Expense previous, Expense current) {
+        Map<SpendingRollupId, SpendingRollup> deltas = new TreeMap<>();
+        if (previous != null) {
+            addExpenseTree(deltas, previous, -1);
+        }
+        if (current != null) {
+            addExpenseTree(deltas, current, 1);
+        }
+        deltas.values().removeIf(SpendingRollup::isEmpty);
+        spendingRollupRepository.increment(deltas.values());
+    }
+
+    @Transactional(readOnly = true)
+    public SpendingResponse getSpending(RollupScope scope, String scopeId, RollupGranularity granularity,
+                                        LocalDate from, LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now(zoneId);
+        LocalDate start = from != null ? from : defaultStart(granularity, end);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        start = bucketStart(granularity, start);
+        if (granularity == RollupGranularity.DAY && start.plusDays(MAX_DAY_BUCKETS).isBefore(end)) {
+            throw new IllegalArgumentException("Daily spending covers at most " + MAX_DAY_BUCKETS + " days");
+        }
+        if (granularity == RollupGranularity.MONTH && start.plusMonths(MAX_MONTH_BUCKETS).isBefore(end)) {
+            throw new IllegalArgumentException("Monthly spending covers at most " + MAX_MONTH_BUCKETS + " months");
+        }
+
+        List<SpendingBucket> buckets = new ArrayList<>();
+        for (SpendingRollup rollup : spendingRollupRepository.findBuckets(scope, scopeId, granularity, start, end)) {
+            if (rollup.isEmpty()) {
+                continue;
+            }
+            buckets.add(SpendingBucket.builder()
+                    .periodStart(rollup.getPeriodStart())
+                    .shareAmount(Money.toMajor(rollup.getShareAmount()))
+                    .paidAmount(Money.toMajor(rollup.getPaidAmount()))
+                    .expenseCount(rollup.getExpenseCount())
+                    .build());
+        }
+
+        return SpendingResponse.builder()
+                .scope(scope)
+                .scopeId(scopeId)
+                .granularity(granularity)
+                .from(start)
+                .to(end)
+                .buckets(buckets)
+                .build();
+    }
+
+    private void addExpenseTree(Map<SpendingRollupId, SpendingRollup> deltas, Expense expense, int sign) {
+        addExpense(deltas, expense.getPaidBy().getUserId(),
+                expense.getGroup() != null ? expense.getGroup().getGroupId() : null,
+                expense.getOccurredAt(), expense.getExpenseAmount(), sign);
+        for (Split split : expense.getSplits()) {
+            addShare(deltas, split.getUser().getUserId(), expense.getOccurredAt(), split.getAmountOwe(), sign);
+        }
+    }
+
+    // The payer's paid amount, and the group's total and expense count; sign -1 takes an expense back out
+    void addExpense(Map<SpendingRollupId, SpendingRollup> deltas, String paidByUserId, String groupId,
+                    Instant occurredAt, long expenseAmount, int sign) {
+        LocalDate day = LocalDate.ofInstant(occurredAt, zoneId);
+        long amount = sign * expenseAmount;
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            LocalDate periodStart = bucketStart(granularity, day);
+            bucket(deltas, RollupScope.USER, paidByUserId, granularity, periodStart).add(0, amount, 0);
+            if (groupId != null) {
+                bucket(deltas, RollupScope.GROUP, groupId, granularity, periodStart).add(amount, amount, sign);
+            }
+        }
+    }
+
+    // A participant's share
+    void addShare(Map<SpendingRollupId, SpendingRollup> deltas, String userId, Instant occurredAt, long amountOwe,
+                  int sign) {
+        LocalDate day = LocalDate.ofInstant(occurredAt, zoneId);
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            bucket(deltas, RollupScope.USER, userId, granularity, bucketStart(granularity, day))
+                    .add(sign * amountOwe, 0, sign);
+        }
+    }
+
+    private SpendingRollup bucket(Map<SpendingRollupId, SpendingRollup> deltas, RollupScope scope, String scopeId,
+                                  RollupGranularity granularity, LocalDate periodStart) {
+        return deltas.computeIfAbsent(new SpendingRollupId(scope, scopeId, granularity, periodStart),
+                id -> new SpendingRollup(scope, scopeId, granularity, periodStart, 0, 0, 0));
+    }
+
+    private LocalDate bucketStart(RollupGranularity granularity, LocalDate day) {
+        return granularity == RollupGranularity.MONTH ? day.withDayOfMonth(1) : day;
+    }
+
+    private LocalDate defaultStart(RollupGranularity granularity, LocalDate end) {
+        return granularity == RollupGranularity.MONTH ? end.minusMonths(11) : end.minusDays(29);
+    }
+}
@@ -1,19 +1,33 @@
 package com.example.splitwise.service;
 
+import com.example.splitwise.dto.CursorPage;
 import com.example.splitwise.entities.User;
 import com.example.splitwise.entities.UserExpenseBalanceSheet;
 import com.example.splitwise.repository.UserRepository;
+import com.example.splitwise.util.Pagination;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 @Service
 @RequiredArgsConstructor
 public class UserService {
 
+    private static final String REQUEST_USERS_ATTRIBUTE = UserService.class.getName() + ".requestUsers";
+
     private final UserRepository userRepository;
+    private final EntityManager entityManager;
 
     @Transactional
     public User createUser(String userId, String name, String email, String mobileNumber) {
@@ -41,12 +55,65 @@ public class UserService {
     }
 
     public User getUserById(String userId) {
-        return userRepository.findByUserId(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found with userId: " + userId));
+        Map<String, User> requestUsers = requestUsers();
+        User user = requestUsers != null ? managedOrNull(requestUsers, userId) : null;
+        if (user == null) {
+            user = userRepository.findByUserId(userId)
+                    .orElseThrow(() -> new IllegalArgumentException("User not found with userId: " + userId));
+            if (requestUsers != null) {
+                requestUsers.put(userId, user);
+            }
+        }
+        return user;
+    }
+
+    // Resolves every id with at most one IN query and fails listing all ids that do not exist
+    public Map<String, User> getUsersByIds(Collection<String> userIds) {
+        Map<String, User> users = findUsersByUserIds(userIds);
+        if (users.size() < userIds.size()) {
+            Set<String> missing = new TreeSet<>(userIds);
+            missing.removeAll(users.keySet());
+            if (!missing.isEmpty()) {
+                throw new IllegalArgumentException("Users not found with userIds: " + String.join(", ", missing));
+            }
+        }
+        return users;
+    }
+
+    // Like getUsersByIds, but simply leaves unknown ids out of the result
+    public Map<String, User> findUsersByUserIds(Collection<String> userIds) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<String, User> requestUsers = requestUsers();
+        Map<String, User> users = new HashMap<>();
+        List<String> toFetch = new ArrayList<>();
+        for (String userId : userIds) {
+            User user = requestUsers != null ? managedOrNull(requestUsers, userId) : null;
+            if (user != null) {
+                users.put(userId, user);
+            } else {
+                toFetch.add(userId);
+            }
+        }
+
+        if (!toFetch.isEmpty()) {
+            for (User user : userRepository.findByUserIdIn(toFetch)) {
+                users.put(user.getUserId(), user);
+                if (requestUsers != null) {
+                    requestUsers.put(user.getUserId(), user);
+                }
+            }
+        }
+        return users;
     }
 
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    public CursorPage<User> getUsers(String cursor, int limit) {
+        int pageSize = Pagination.clampLimit(limit);
+        List<User> users = userRepository.findByIdGreaterThanOrderByIdAsc(
+                Pagination.afterId(cursor), Pagination.probe(pageSize));
+        return CursorPage.of(users, pageSize, User::getId);
     }
 
     @Transactional
@@ -74,5 +141,30 @@ public class UserService {
         User user = getUserById(userId);
         userRepository.delete(user);
     }
-}
 
+    // Identity map of the users resolved so far in the current HTTP request, or null outside a request
+    @SuppressWarnings("unchecked")
+    private Map<String, User> requestUsers() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Map<String, User> users = (Map<String, User>) attributes.getAttribute(
+                REQUEST_USERS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (users == null) {
+            users = new HashMap<>();
+            attributes.setAttribute(REQUEST_USERS_ATTRIBUTE, users, RequestAttributes.SCOPE_REQUEST);
+        }
+        return users;
+    }
+
+    // A rolled back attempt clears the persistence context, so entries from before a retry are dropped, not reused
+    private User managedOrNull(Map<String, User> requestUsers, String userId) {
+        User user = requestUsers.get(userId);
+        if (user != null && !entityManager.contains(user)) {
+            requestUsers.remove(userId);
+            return null;
+        }
+        return user;
+    }
+}
@@ -2,6 +2,7 @@ package com.example.splitwise.strategy;
 
 import com.example.splitwise.entities.Split;
 import com.example.splitwise.entities.User;
+import com.example.splitwise.util.Money;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
@@ -11,32 +12,34 @@ import java.util.List;
 public class EqualExpenseSplit implements ExpenseSplit {
 
     @Override
-    public void validateSplitRequest(List<Split> splits, Double totalAmount) {
-        double totalSplitAmount = splits.stream()
-                .mapToDouble(Split::getAmountOwe)
-                .sum();
-        
-        if (Math.abs(totalSplitAmount - totalAmount) > 0.01) {
+    public void validateSplitRequest(List<Split> splits, long totalAmount) {
+        long totalSplitAmount = 0;
+        for (Split split : splits) {
+            totalSplitAmount += split.getAmountOwe();
+        }
+
+        if (totalSplitAmount != totalAmount) {
             throw new IllegalArgumentException(
-                    "Total split amount " + totalSplitAmount + " doesn't match expense amount " + totalAmount
+                    "Total split amount " + Money.toMajor(totalSplitAmount)
+                            + " doesn't match expense amount " + Money.toMajor(totalAmount)
             );
         }
     }
 
     @Override
-    public List<Split> validateAndGetSplits(List<User> users, List<Double> splitAmounts, Double totalAmount) {
+    public List<Split> validateAndGetSplits(List<User> users, long[] splitValues, long totalAmount) {
         if (users.isEmpty()) {
             throw new IllegalArgumentException("Users list cannot be empty");
         }
-        
-        double amountPerUser = totalAmount / users.size();
-        List<Split> splits = new ArrayList<>();
-        
-        for (User user : users) {
-            splits.add(new Split(user, amountPerUser));
+
+        long[] shares = new long[users.size()];
+        SplitCalculator.allocateEqually(totalAmount, shares);
+
+        List<Split> splits = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            splits.add(new Split(users.get(i), shares[i]));
         }
-        
+
         return splits;
     }
 }
-
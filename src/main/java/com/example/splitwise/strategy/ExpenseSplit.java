@@ -6,7 +6,6 @@ import com.example.splitwise.entities.User;
 import java.util.List;
 
 public interface ExpenseSplit {
-    void validateSplitRequest(List<Split> splits, Double totalAmount);
-    List<Split> validateAndGetSplits(List<User> users, List<Double> splitAmounts, Double totalAmount);
+    void validateSplitRequest(List<Split> splits, long totalAmount);
+    List<Split> validateAndGetSplits(List<User> users, long[] splitValues, long totalAmount);
 }
-
@@ -2,6 +2,7 @@ package com.example.splitwise.strategy;
 
 import com.example.splitwise.entities.Split;
 import com.example.splitwise.entities.User;
+import com.example.splitwise.util.Money;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
@@ -10,41 +11,47 @@ import java.util.List;
 @Component
 public class PercentageExpenseSplit implements ExpenseSplit {
 
+    // Percentages are expressed in basis points (hundredths of a percent)
+    public static final long FULL_PERCENTAGE = 10_000;
+
     @Override
-    public void validateSplitRequest(List<Split> splits, Double totalAmount) {
-        double totalPercentage = splits.stream()
-                .mapToDouble(split -> (split.getAmountOwe() / totalAmount) * 100)
-                .sum();
-        
-        if (Math.abs(totalPercentage - 100.0) > 0.01) {
+    public void validateSplitRequest(List<Split> splits, long totalAmount) {
+        long totalSplitAmount = 0;
+        for (Split split : splits) {
+            totalSplitAmount += split.getAmountOwe();
+        }
+
+        if (totalSplitAmount != totalAmount) {
             throw new IllegalArgumentException(
-                    "Total percentage " + totalPercentage + " doesn't equal 100%"
+                    "Total split amount " + Money.toMajor(totalSplitAmount)
+                            + " doesn't match expense amount " + Money.toMajor(totalAmount)
             );
         }
     }
 
     @Override
-    public List<Split> validateAndGetSplits(List<User> users, List<Double> splitAmounts, Double totalAmount) {
-        if (users.size() != splitAmounts.size()) {
+    public List<Split> validateAndGetSplits(List<User> users, long[] splitValues, long totalAmount) {
+        if (users.size() != splitValues.length) {
             throw new IllegalArgumentException(
-                    "Number of users (" + users.size() + ") must match number of percentages (" + splitAmounts.size() + ")"
+                    "Number of users (" + users.size() + ") must match number of percentages (" + splitValues.length + ")"
             );
         }
-        
-        double totalPercentage = splitAmounts.stream().mapToDouble(Double::doubleValue).sum();
-        if (Math.abs(totalPercentage - 100.0) > 0.01) {
+
+        long totalPercentage = SplitCalculator.sum(splitValues);
+        if (totalPercentage != FULL_PERCENTAGE) {
             throw new IllegalArgumentException(
-                    "Total percentage " + totalPercentage + " must equal 100%"
+                    "Total percentage " + (totalPercentage / 100.0) + " must equal 100%"
             );
         }
-        
-        List<Split> splits = new ArrayList<>();
+
+        long[] shares = new long[users.size()];
+        SplitCalculator.allocateProportionally(totalAmount, splitValues, FULL_PERCENTAGE, shares);
+
+        List<Split> splits = new ArrayList<>(users.size());
         for (int i = 0; i < users.size(); i++) {
-            double amountOwe = (splitAmounts.get(i) / 100.0) * totalAmount;
-            splits.add(new Split(users.get(i), amountOwe));
+            splits.add(new Split(users.get(i), shares[i]));
         }
-        
+
         return splits;
     }
 }
-
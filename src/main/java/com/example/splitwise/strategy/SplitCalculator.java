@@ -0,0 +1,47 @@
+package com.example.splitwise.strategy;
+
+import com.example.splitwise.util.Money;
+
+// Share calculators over minor units. They write into a caller-supplied array and always sum exactly to the total.
+public final class SplitCalculator {
+
+    private SplitCalculator() {
+    }
+
+    // The first (totalAmount % n) participants absorb one extra minor unit each
+    public static void allocateEqually(long totalAmount, long[] shares) {
+        int participants = shares.length;
+        long base = totalAmount / participants;
+        long remainder = totalAmount % participants;
+        for (int i = 0; i < participants; i++) {
+            shares[i] = i < remainder ? base + 1 : base;
+        }
+    }
+
+    // Cumulative flooring: share i is floor(total * w[0..i] / W) - floor(total * w[0..i-1] / W),
+    // so every share is within one minor unit of its exact value and rounding never drifts
+    public static void allocateProportionally(long totalAmount, long[] weights, long totalWeight, long[] shares) {
+        long cumulativeWeight = 0;
+        long allocated = 0;
+        for (int i = 0; i < weights.length; i++) {
+            cumulativeWeight += weights[i];
+            long cumulativeShare;
+            try {
+                cumulativeShare = Math.multiplyExact(totalAmount, cumulativeWeight) / totalWeight;
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException(
+                        "Amount " + Money.format(totalAmount) + " is too large to split by these weights");
+            }
+            shares[i] = cumulativeShare - allocated;
+            allocated = cumulativeShare;
+        }
+    }
+
+    public static long sum(long[] values) {
+        long total = 0;
+        for (long value : values) {
+            total += value;
+        }
+        return total;
+    }
+}
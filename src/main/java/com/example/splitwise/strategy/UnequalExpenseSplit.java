@@ -2,6 +2,7 @@ package com.example.splitwise.strategy;
 
 import com.example.splitwise.entities.Split;
 import com.example.splitwise.entities.User;
+import com.example.splitwise.util.Money;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
@@ -11,39 +12,41 @@ import java.util.List;
 public class UnequalExpenseSplit implements ExpenseSplit {
 
     @Override
-    public void validateSplitRequest(List<Split> splits, Double totalAmount) {
-        double totalSplitAmount = splits.stream()
-                .mapToDouble(Split::getAmountOwe)
-                .sum();
-        
-        if (Math.abs(totalSplitAmount - totalAmount) > 0.01) {
+    public void validateSplitRequest(List<Split> splits, long totalAmount) {
+        long totalSplitAmount = 0;
+        for (Split split : splits) {
+            totalSplitAmount += split.getAmountOwe();
+        }
+
+        if (totalSplitAmount != totalAmount) {
             throw new IllegalArgumentException(
-                    "Total split amount " + totalSplitAmount + " doesn't match expense amount " + totalAmount
+                    "Total split amount " + Money.toMajor(totalSplitAmount)
+                            + " doesn't match expense amount " + Money.toMajor(totalAmount)
             );
         }
     }
 
     @Override
-    public List<Split> validateAndGetSplits(List<User> users, List<Double> splitAmounts, Double totalAmount) {
-        if (users.size() != splitAmounts.size()) {
+    public List<Split> validateAndGetSplits(List<User> users, long[] splitValues, long totalAmount) {
+        if (users.size() != splitValues.length) {
             throw new IllegalArgumentException(
-                    "Number of users (" + users.size() + ") must match number of split amounts (" + splitAmounts.size() + ")"
+                    "Number of users (" + users.size() + ") must match number of split amounts (" + splitValues.length + ")"
             );
         }
-        
-        double totalSplitAmount = splitAmounts.stream().mapToDouble(Double::doubleValue).sum();
-        if (Math.abs(totalSplitAmount - totalAmount) > 0.01) {
+
+        long totalSplitAmount = SplitCalculator.sum(splitValues);
+        if (totalSplitAmount != totalAmount) {
             throw new IllegalArgumentException(
-                    "Total split amount " + totalSplitAmount + " doesn't match expense amount " + totalAmount
+                    "Total split amount " + Money.toMajor(totalSplitAmount)
+                            + " doesn't match expense amount " + Money.toMajor(totalAmount)
             );
         }
-        
-        List<Split> splits = new ArrayList<>();
+
+        List<Split> splits = new ArrayList<>(users.size());
         for (int i = 0; i < users.size(); i++) {
-            splits.add(new Split(users.get(i), splitAmounts.get(i)));
+            splits.add(new Split(users.get(i), splitValues[i]));
         }
-        
+
         return splits;
     }
 }
-
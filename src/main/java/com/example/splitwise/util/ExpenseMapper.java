@@ -0,0 +1,39 @@
+package com.example.splitwise.util;
+
+import com.example.splitwise.dto.ExpenseResponse;
+import com.example.splitwise.dto.SplitDetail;
+import com.example.splitwise.entities.Expense;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+public final class ExpenseMapper {
+
+    private ExpenseMapper() {
+    }
+
+    public static ExpenseResponse toResponse(Expense expense) {
+        List<SplitDetail> splitDetails = expense.getSplits() != null
+                ? expense.getSplits().stream()
+                        .map(split -> SplitDetail.builder()
+                                .userId(split.getUser().getUserId())
+                                .amount(Money.toMajor(split.getAmountOwe()))
+                                .build())
+                        .collect(Collectors.toList())
+                : List.of();
+
+        String groupId = expense.getGroup() != null ? expense.getGroup().getGroupId() : null;
+
+        return ExpenseResponse.builder()
+                .expenseId(expense.getExpenseId())
+                .description(expense.getDescription())
+                .expenseAmount(Money.toMajor(expense.getExpenseAmount()))
+                .paidByUserId(expense.getPaidBy().getUserId())
+                .splitType(expense.getSplitType())
+                .splits(splitDetails)
+                .groupId(groupId)
+                .createdAt(expense.getCreatedAt())
+                .occurredAt(expense.getOccurredAt())
+                .build();
+    }
+}
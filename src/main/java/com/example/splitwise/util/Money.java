@@ -0,0 +1,42 @@
+package com.example.splitwise.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Amounts are stored as long minor units (cents); Double only appears at the REST boundary
+public final class Money {
+
+    public static final int SCALE = 2;
+
+    // 100 billion in major units, either sign. Far enough below Long.MAX_VALUE that sums of splits and
+    // amount * basis point products cannot overflow.
+    public static final long MAX_MINOR_AMOUNT = 10_000_000_000_000L;
+
+    private static final BigDecimal MAX_AMOUNT = BigDecimal.valueOf(MAX_MINOR_AMOUNT, SCALE);
+
+    private Money() {
+    }
+
+    // Bad input is rejected with IllegalArgumentException, which the API reports as a 400
+    public static long toMinor(Double amount) {
+        if (amount == null || amount.isNaN() || amount.isInfinite()) {
+            throw new IllegalArgumentException("Amount must be a finite number");
+        }
+        BigDecimal rounded = BigDecimal.valueOf(amount).setScale(SCALE, RoundingMode.HALF_UP);
+        if (rounded.abs().compareTo(MAX_AMOUNT) > 0) {
+            throw new IllegalArgumentException("Amount " + BigDecimal.valueOf(amount).toPlainString()
+                    + " is out of range; amounts must be between -" + MAX_AMOUNT.toPlainString()
+                    + " and " + MAX_AMOUNT.toPlainString());
+        }
+        return rounded.unscaledValue().longValue();
+    }
+
+    public static Double toMajor(long minorAmount) {
+        return minorAmount / 100.0;
+    }
+
+    // Exact decimal text with two places, for file formats where a Double would print as 1000.0 or 1.0E7
+    public static String format(long minorAmount) {
+        return BigDecimal.valueOf(minorAmount, SCALE).toPlainString();
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.splitwise.service;
+
+import com.example.splitwise.entities.LedgerEntry;
+import com.example.splitwise.repository.BalanceSheetRepository;
+import com.example.splitwise.repository.LedgerEntryRepository;
+import com.example.splitwise.repository.PairwiseBalanceRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class BalanceSnapshotServiceTest {
+
+    private static final Instant REPLAY_FROM = Instant.parse("2026-01-01T12:00:00Z");
+
+    private final BalanceSheetRepository balanceSheetRepository = mock(BalanceSheetRepository.class);
+    private final LedgerEntryRepository ledgerEntryRepository = mock(LedgerEntryRepository.class);
+    private final PairwiseBalanceRepository pairwiseBalanceRepository = mock(PairwiseBalanceRepository.class);
+    private final BalanceSheetService balanceSheetService = mock(BalanceSheetService.class);
+    private final EntityManager entityManager = mock(EntityManager.class);
+
+    private final BalanceSnapshotService service = new BalanceSnapshotService(balanceSheetRepository,
+            ledgerEntryRepository, pairwiseBalanceRepository, balanceSheetService, entityManager, 1000, 120);
+
+    @Test
+    void restoreReadsOnlyPendingIdsAndEntriesFromTheWatermarkDespiteIdGaps() {
+        // Pooled ids with gaps left by restarts and rollbacks: 1-40, 51-90, 95, 101-120, 151-160. Everything up to
+        // 90 was created before the watermark and folded in except 7 and 55; 95 was a write still in flight at
+        // capture, and 153-160 arrived after it.
+        BalanceSnapshot snapshot = new BalanceSnapshot(REPLAY_FROM.plusSeconds(120).toEpochMilli(),
+                REPLAY_FROM.toEpochMilli(), 152, ids(LongStream.concat(range(101, 120), range(151, 152))),
+                new long[]{7, 55}, List.of(), List.of());
+        List<LedgerEntry> createdSince = entries(LongStream.concat(LongStream.of(95),
+                LongStream.concat(range(101, 120), range(151, 160))));
+        when(ledgerEntryRepository.findMaxId()).thenReturn(160L);
+        when(balanceSheetRepository.findAllWithUser()).thenReturn(List.of());
+        when(ledgerEntryRepository.findAllById(List.of(7L, 55L))).thenReturn(entries(LongStream.of(7, 55)));
+        when(ledgerEntryRepository.findCreatedSince(eq(REPLAY_FROM), eq(0L), any())).thenReturn(createdSince);
+
+        service.restore(snapshot);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<LedgerEntry>> replayed = ArgumentCaptor.forClass(List.class);
+        verify(balanceSheetService, times(2)).applyLedgerEntries(replayed.capture());
+        assertThat(replayed.getAllValues().get(0)).extracting(LedgerEntry::getId).containsExactly(7L, 55L);
+        assertThat(replayed.getAllValues().get(1)).extracting(LedgerEntry::getId)
+                .containsExactly(95L, 153L, 154L, 155L, 156L, 157L, 158L, 159L, 160L);
+
+        // No query walks the ledger below the watermark
+        verify(ledgerEntryRepository).findMaxId();
+        verify(ledgerEntryRepository).findAllById(List.of(7L, 55L));
+        verify(ledgerEntryRepository).findCreatedSince(eq(REPLAY_FROM), eq(0L), any());
+        verifyNoMoreInteractions(ledgerEntryRepository);
+        verify(entityManager, atLeast(2)).clear();
+    }
+
+    @Test
+    void restorePagesThroughEntriesFromTheWatermark() {
+        BalanceSnapshotService smallBatches = new BalanceSnapshotService(balanceSheetRepository,
+                ledgerEntryRepository, pairwiseBalanceRepository, balanceSheetService, entityManager, 2, 120);
+        BalanceSnapshot snapshot = new BalanceSnapshot(0, REPLAY_FROM.toEpochMilli(), 0, new long[0], new long[0],
+                List.of(), List.of());
+        when(balanceSheetRepository.findAllWithUser()).thenReturn(List.of());
+        when(ledgerEntryRepository.findCreatedSince(eq(REPLAY_FROM), eq(0L), any()))
+                .thenReturn(entries(LongStream.of(3, 8)));
+        when(ledgerEntryRepository.findCreatedSince(eq(REPLAY_FROM), eq(8L), any()))
+                .thenReturn(entries(LongStream.of(12)));
+
+        smallBatches.restore(snapshot);
+
+        verify(ledgerEntryRepository).findCreatedSince(eq(REPLAY_FROM), eq(8L), any());
+        verify(balanceSheetService, times(2)).applyLedgerEntries(any());
+    }
+
+    @Test
+    void restoreSkipsASnapshotAheadOfTheDatabase() {
+        BalanceSnapshot snapshot = new BalanceSnapshot(0, REPLAY_FROM.toEpochMilli(), 500, new long[0],
+                new long[0], List.of(), List.of());
+        when(ledgerEntryRepository.findMaxId()).thenReturn(100L);
+
+        service.restore(snapshot);
+
+        verifyNoMoreInteractions(balanceSheetService, pairwiseBalanceRepository);
+    }
+
+    @Test
+    void captureSetsTheWatermarkOneMarginBeforeNowAndListsIdsAroundIt() {
+        when(balanceSheetRepository.findAllWithUser()).thenReturn(List.of());
+        when(pairwiseBalanceRepository.streamNonZero()).thenReturn(Stream.empty());
+        when(ledgerEntryRepository.streamAppliedIdsCreatedSince(any())).thenReturn(Stream.of(101L, 102L));
+        when(ledgerEntryRepository.streamPendingIdsCreatedBefore(any())).thenReturn(Stream.of(7L));
+        when(ledgerEntryRepository.findMaxAppliedId()).thenReturn(102L);
+
+        BalanceSnapshot snapshot = service.capture();
+
+        Instant replayFrom = Instant.ofEpochMilli(snapshot.getReplayFromEpochMilli());
+        assertThat(Duration.between(replayFrom, Instant.ofEpochMilli(snapshot.getCreatedAtEpochMilli())))
+                .isBetween(Duration.ofSeconds(119), Duration.ofSeconds(121));
+        verify(ledgerEntryRepository).streamAppliedIdsCreatedSince(replayFrom);
+        verify(ledgerEntryRepository).streamPendingIdsCreatedBefore(replayFrom);
+        assertThat(snapshot.getMaxAppliedId()).isEqualTo(102);
+        assertThat(snapshot.getPendingIds()).containsExactly(7);
+        assertThat(snapshot.covers(101)).isTrue();
+        assertThat(snapshot.covers(103)).isFalse();
+    }
+
+    private static LongStream range(long from, long to) {
+        return LongStream.rangeClosed(from, to);
+    }
+
+    private static long[] ids(LongStream ids) {
+        return ids.toArray();
+    }
+
+    private static List<LedgerEntry> entries(LongStream ids) {
+        List<LedgerEntry> entries = new ArrayList<>();
+        ids.forEach(id -> entries.add(LedgerEntry.builder()
+                .id(id)
+                .expenseId("EXP-" + id)
+                .payerUserId("alice")
+                .participantUserId("bob")
+                .amount(100)
+                .createdAt(REPLAY_FROM)
+                .build()));
+        return entries;
+    }
+}
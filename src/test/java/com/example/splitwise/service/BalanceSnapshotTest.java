@@ -0,0 +1,99 @@
+package com.example.splitwise.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BalanceSnapshotTest {
+
+    @Test
+    void idListGrowsPastTheInitialCapacity() {
+        BalanceSnapshot.IdListBuilder builder = new BalanceSnapshot.IdListBuilder();
+        for (long id = 1; id <= 100; id++) {
+            builder.add(2 * id);
+        }
+
+        long[] ids = builder.build();
+
+        assertThat(ids).hasSize(100);
+        assertThat(ids[0]).isEqualTo(2);
+        assertThat(ids[99]).isEqualTo(200);
+    }
+
+    @Test
+    void coversExactlyTheRecentAppliedIds() {
+        BalanceSnapshot snapshot = snapshot(ids(51, 52, 53, 101, 160), ids());
+
+        for (long id : new long[]{51, 52, 53, 101, 160}) {
+            assertThat(snapshot.covers(id)).as("id %d", id).isTrue();
+        }
+        for (long id : new long[]{0, 50, 54, 100, 102, 161, Long.MAX_VALUE}) {
+            assertThat(snapshot.covers(id)).as("id %d", id).isFalse();
+        }
+    }
+
+    @Test
+    void emptySnapshotCoversNothing() {
+        BalanceSnapshot snapshot = snapshot(ids(), ids());
+
+        assertThat(snapshot.covers(1)).isFalse();
+        assertThat(snapshot.getPendingIds()).isEmpty();
+    }
+
+    @Test
+    void pendingIdsAreCopiedOut() {
+        BalanceSnapshot snapshot = snapshot(ids(), ids(7, 130));
+
+        snapshot.getPendingIds()[0] = 99;
+
+        assertThat(snapshot.getPendingIds()).containsExactly(7, 130);
+    }
+
+    @Test
+    void writeAndReadRoundTripEverything() throws IOException {
+        BalanceSnapshot snapshot = new BalanceSnapshot(1_700_000_000_000L, 1_699_999_880_000L, 160,
+                ids(101, 160), ids(7, 130),
+                List.of(new BalanceSnapshot.SheetState("alice", 1_000, 500, 500, 0),
+                        new BalanceSnapshot.SheetState("bob", 0, 500, 0, 500)),
+                List.of(new BalanceSnapshot.PairState("alice", "bob", -500)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        snapshot.writeTo(out);
+
+        BalanceSnapshot read = BalanceSnapshot.readFrom(new ByteArrayInputStream(out.toByteArray()));
+
+        assertThat(read.getCreatedAtEpochMilli()).isEqualTo(1_700_000_000_000L);
+        assertThat(read.getReplayFromEpochMilli()).isEqualTo(1_699_999_880_000L);
+        assertThat(read.getMaxAppliedId()).isEqualTo(160);
+        assertThat(read.getPendingIds()).containsExactly(7, 130);
+        assertThat(read.getSheets()).isEqualTo(snapshot.getSheets());
+        assertThat(read.getPairs()).isEqualTo(snapshot.getPairs());
+        assertThat(read.covers(101)).isTrue();
+        assertThat(read.covers(102)).isFalse();
+        assertThat(read.covers(160)).isTrue();
+    }
+
+    @Test
+    void readRejectsOtherFiles() {
+        assertThatThrownBy(() -> BalanceSnapshot.readFrom(new ByteArrayInputStream(new byte[]{1, 2, 3, 4})))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Not a balance snapshot");
+    }
+
+    private static long[] ids(long... ids) {
+        BalanceSnapshot.IdListBuilder builder = new BalanceSnapshot.IdListBuilder();
+        for (long id : ids) {
+            builder.add(id);
+        }
+        return builder.build();
+    }
+
+    private static BalanceSnapshot snapshot(long[] recentAppliedIds, long[] pendingIds) {
+        return new BalanceSnapshot(0, 0, 0, recentAppliedIds, pendingIds, List.of(), List.of());
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.splitwise.service;
+
+import com.example.splitwise.dto.CreateExpenseRequest;
+import com.example.splitwise.dto.SplitDetail;
+import com.example.splitwise.enums.DataFormat;
+import com.example.splitwise.enums.ExpenseSplitType;
+import com.example.splitwise.util.Csv;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class ExpenseImportParserTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void csvExpenseSplitAcrossChunksIsMergedOnce() throws IOException {
+        String file = csv(
+                split("E1", "alice", "10.00"),
+                split("E1", "bob", "10.00"),
+                split("E1", "carol", "10.00"),
+                split("E2", "bob", "30.00"));
+
+        List<ExpenseImportParser.ImportItem> items = importAll(file, DataFormat.CSV, 2);
+
+        assertThat(items)
+                .extracting(ExpenseImportParser.ImportItem::firstLine, ExpenseImportParser.ImportItem::lastLine)
+                .containsExactly(tuple(2L, 4L), tuple(5L, 5L));
+        CreateExpenseRequest first = items.get(0).request();
+        assertThat(first.getExpenseId()).isEqualTo("E1");
+        assertThat(first.getSplitType()).isEqualTo(ExpenseSplitType.EXACT);
+        assertThat(first.getSplits()).extracting(SplitDetail::getUserId).containsExactly("alice", "bob", "carol");
+        assertThat(items.get(1).request().getSplits()).extracting(SplitDetail::getUserId).containsExactly("bob");
+    }
+
+    @Test
+    void everyChunkBoundaryGivesTheSameExpenses() throws IOException {
+        String file = csv(
+                split("E1", "alice", "10.00"),
+                split("E1", "bob", "10.00"),
+                split("E2", "alice", "30.00"),
+                split("E3", "alice", "5.00"),
+                split("E3", "bob", "5.00"),
+                split("E3", "carol", "5.00"));
+
+        for (int chunkSize = 1; chunkSize <= 7; chunkSize++) {
+            List<ExpenseImportParser.ImportItem> items = importAll(file, DataFormat.CSV, chunkSize);
+
+            assertThat(items).as("chunk size %d", chunkSize)
+                    .extracting(item -> item.request().getExpenseId(), item -> item.request().getSplits().size())
+                    .containsExactly(tuple("E1", 2), tuple("E2", 1), tuple("E3", 3));
+        }
+    }
+
+    @Test
+    void badRowRejectsItsWholeExpenseWithTheLineNumber() throws IOException {
+        String file = csv(
+                split("E1", "alice", "10.00"),
+                split("E1", "bob", "ten"),
+                split("E2", "bob", "30.00"));
+
+        List<ExpenseImportParser.ImportItem> items = importAll(file, DataFormat.CSV, 10);
+
+        assertThat(items).hasSize(2);
+        assertThat(items.get(0).request()).isNull();
+        assertThat(items.get(0).error()).startsWith("Line 3: ").contains("splitAmount is not a number");
+        assertThat(items.get(1).error()).isNull();
+    }
+
+    @Test
+    void quotedLineBreaksSpanPhysicalLinesAndAreCounted() throws IOException {
+        String file = csv(
+                Csv.row("E1", "Dinner\nand drinks", "20.00", "alice", "EXACT", null, null, null, "alice", "20.00"),
+                split("E2", "bob", "5.00"));
+
+        List<ExpenseImportParser.ImportItem> items = importAll(file, DataFormat.CSV, 1);
+
+        assertThat(items)
+                .extracting(ExpenseImportParser.ImportItem::firstLine, ExpenseImportParser.ImportItem::lastLine)
+                .containsExactly(tuple(2L, 3L), tuple(4L, 4L));
+        assertThat(items.get(0).request().getDescription()).isEqualTo("Dinner\nand drinks");
+    }
+
+    @Test
+    void resumeSkipsExactlyTheCommittedLines() throws IOException {
+        String file = csv(
+                Csv.row("E1", "Multi\nline", "20.00", "alice", "EXACT", null, null, null, "alice", "20.00"),
+                split("E2", "bob", "5.00"),
+                split("E3", "carol", "7.00"),
+                split("E3", "alice", "7.00"));
+
+        // The first chunk commits E1 and E2; E3's rows come after the checkpoint
+        long checkpoint;
+        try (ExpenseImportParser.RecordReader reader = reader(file, DataFormat.CSV)) {
+            ExpenseImportParser parser = new ExpenseImportParser(DataFormat.CSV, objectMapper, reader.readHeader());
+            List<ExpenseImportParser.ParsedRow> carry = new ArrayList<>();
+            List<ExpenseImportParser.ImportItem> committed = parser.group(parse(parser, reader.read(3)), false, carry);
+            assertThat(committed).extracting(item -> item.request().getExpenseId()).containsExactly("E1", "E2");
+            checkpoint = committed.get(committed.size() - 1).lastLine();
+        }
+        assertThat(checkpoint).isEqualTo(4);
+
+        try (ExpenseImportParser.RecordReader reader = reader(file, DataFormat.CSV)) {
+            ExpenseImportParser parser = new ExpenseImportParser(DataFormat.CSV, objectMapper, reader.readHeader());
+            reader.skipTo(checkpoint);
+            List<ExpenseImportParser.RawRecord> records = reader.read(10);
+
+            assertThat(records).extracting(ExpenseImportParser.RawRecord::firstLine).containsExactly(5L, 6L);
+            List<ExpenseImportParser.ImportItem> resumed =
+                    parser.group(parse(parser, records), true, new ArrayList<>());
+            assertThat(resumed).extracting(item -> item.request().getExpenseId()).containsExactly("E3");
+            assertThat(reader.getLineNumber()).isEqualTo(6);
+        }
+    }
+
+    @Test
+    void ndjsonBlankLinesAreSkippedButCounted() throws IOException {
+        String file = String.join("\n",
+                "{\"description\":\"A\",\"expenseAmount\":10,\"paidByUserId\":\"alice\",\"splitType\":\"EQUAL\","
+                        + "\"userIds\":[\"alice\",\"bob\"]}",
+                "",
+                "{\"description\":\"B\",\"expenseAmount\":5,\"paidByUserId\":\"bob\",\"splitType\":\"EQUAL\","
+                        + "\"splits\":[{\"userId\":\"alice\",\"amount\":2.5},{\"userId\":\"bob\",\"amount\":2.5}]}",
+                "{not json") + "\n";
+
+        List<ExpenseImportParser.ImportItem> items = importAll(file, DataFormat.NDJSON, 2);
+
+        assertThat(items).extracting(ExpenseImportParser.ImportItem::firstLine).containsExactly(1L, 3L, 4L);
+        assertThat(items.get(1).request().getUserIds()).containsExactly("alice", "bob");
+        assertThat(items.get(2).error()).startsWith("Malformed JSON");
+    }
+
+    // The loop of ExpenseImportService.importRecords without the database: read a chunk, parse it, group it with
+    // the rows carried over from the previous chunk
+    private List<ExpenseImportParser.ImportItem> importAll(String file, DataFormat format, int chunkSize)
+            throws IOException {
+        List<ExpenseImportParser.ImportItem> items = new ArrayList<>();
+        try (ExpenseImportParser.RecordReader reader = reader(file, format)) {
+            String header = format == DataFormat.CSV ? reader.readHeader() : null;
+            ExpenseImportParser parser = new ExpenseImportParser(format, objectMapper, header);
+            List<ExpenseImportParser.ParsedRow> carry = new ArrayList<>();
+            List<ExpenseImportParser.RawRecord> records = reader.read(chunkSize);
+            while (!records.isEmpty() || !carry.isEmpty()) {
+                List<ExpenseImportParser.RawRecord> next = reader.read(chunkSize);
+                List<ExpenseImportParser.ParsedRow> rows = new ArrayList<>(carry);
+                rows.addAll(parse(parser, records));
+                carry = new ArrayList<>();
+                items.addAll(parser.group(rows, next.isEmpty(), carry));
+                records = next;
+            }
+        }
+        return items;
+    }
+
+    private static List<ExpenseImportParser.ParsedRow> parse(ExpenseImportParser parser,
+                                                            List<ExpenseImportParser.RawRecord> records) {
+        return records.stream().map(parser::parse).toList();
+    }
+
+    private static ExpenseImportParser.RecordReader reader(String file, DataFormat format) {
+        return new ExpenseImportParser.RecordReader(new BufferedReader(new StringReader(file)), format);
+    }
+
+    private static String csv(String... rows) {
+        return ExportService.EXPENSES_CSV_HEADER + "\n" + String.join("\n", rows) + "\n";
+    }
+
+    private static String split(String expenseId, String userId, String amount) {
+        return Csv.row(expenseId, "Dinner", "30.00", "alice", "EXACT", null, null, null, userId, amount);
+    }
+}
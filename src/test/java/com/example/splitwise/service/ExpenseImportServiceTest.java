@@ -0,0 +1,88 @@
+package com.example.splitwise.service;
+
+import com.example.splitwise.dto.ImportReport;
+import com.example.splitwise.enums.DataFormat;
+import com.example.splitwise.enums.ImportStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ExpenseImportServiceTest {
+
+    @Autowired
+    private ExpenseImportService expenseImportService;
+
+    @Autowired
+    private UserService userService;
+
+    @TempDir
+    Path tempDir;
+
+    private String alice;
+    private String bob;
+
+    @BeforeEach
+    void createUsers() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        alice = "import-alice-" + suffix;
+        bob = "import-bob-" + suffix;
+        userService.createUser(alice, "Alice", alice + "@example.com", null);
+        userService.createUser(bob, "Bob", bob + "@example.com", null);
+    }
+
+    @Test
+    void expenseAmountTooLargeForALongIsRejectedAndTheImportCompletes() throws IOException {
+        Path file = write("expenses.ndjson", List.of(
+                equalExpense("30.00"),
+                equalExpense("1e20"),
+                equalExpense("12.50")));
+
+        ImportReport report = expenseImportService.importFile(file, DataFormat.NDJSON, 2);
+
+        assertThat(report.getStatus()).isEqualTo(ImportStatus.COMPLETED);
+        assertThat(report.getExpensesImported()).isEqualTo(2);
+        assertThat(report.getRowsRejected()).isEqualTo(1);
+        assertThat(report.getRejections()).singleElement()
+                .satisfies(rejection -> {
+                    assertThat(rejection.getLineNumber()).isEqualTo(2);
+                    assertThat(rejection.getReason()).contains("out of range");
+                });
+    }
+
+    @Test
+    void splitAmountTooLargeForALongIsRejectedAndTheImportCompletes() throws IOException {
+        Path file = write("expenses.ndjson", List.of(
+                "{\"description\":\"Huge split\",\"expenseAmount\":10.00,\"paidByUserId\":\"" + alice + "\","
+                        + "\"splitType\":\"EXACT\",\"splits\":[{\"userId\":\"" + alice + "\",\"amount\":1e20},"
+                        + "{\"userId\":\"" + bob + "\",\"amount\":5.00}]}",
+                equalExpense("8.00")));
+
+        ImportReport report = expenseImportService.importFile(file, DataFormat.NDJSON, 10);
+
+        assertThat(report.getStatus()).isEqualTo(ImportStatus.COMPLETED);
+        assertThat(report.getExpensesImported()).isEqualTo(1);
+        assertThat(report.getRowsRejected()).isEqualTo(1);
+        assertThat(report.getRejections()).singleElement()
+                .satisfies(rejection -> assertThat(rejection.getLineNumber()).isEqualTo(1));
+    }
+
+    private String equalExpense(String amount) {
+        return "{\"description\":\"Dinner\",\"expenseAmount\":" + amount + ",\"paidByUserId\":\"" + alice + "\","
+                + "\"splitType\":\"EQUAL\",\"userIds\":[\"" + alice + "\",\"" + bob + "\"]}";
+    }
+
+    private Path write(String name, List<String> lines) throws IOException {
+        return Files.write(tempDir.resolve(name), lines);
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.splitwise.service;
+
+import com.example.splitwise.dto.BalanceSheetResponse;
+import com.example.splitwise.entities.Expense;
+import com.example.splitwise.entities.Split;
+import com.example.splitwise.entities.User;
+import com.example.splitwise.enums.ExpenseSplitType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Edits and deletes go through replaceSplits and the ledger deltas; balances must end up as if the final version
+// had been written directly
+@SpringBootTest
+class ExpenseServiceUpdateTest {
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private BalanceSheetService balanceSheetService;
+
+    private User alice;
+    private User bob;
+    private User carol;
+    private String expenseId;
+
+    @BeforeEach
+    void createExpense() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        alice = userService.createUser("alice-" + suffix, "Alice", "alice-" + suffix + "@example.com", null);
+        bob = userService.createUser("bob-" + suffix, "Bob", "bob-" + suffix + "@example.com", null);
+        carol = userService.createUser("carol-" + suffix, "Carol", "carol-" + suffix + "@example.com", null);
+        expenseId = "EXP-" + suffix;
+
+        expenseService.createExpense(expenseId, "Dinner", 900,
+                splits(new Split(alice, 300), new Split(bob, 300), new Split(carol, 300)),
+                ExpenseSplitType.EXACT, alice.getUserId(), null);
+    }
+
+    @Test
+    void editKeepsSplitRowsOfRemainingParticipantsAndMovesOnlyTheDifference() {
+        Long bobSplitId = splitIdOf(expenseService.getExpenseById(expenseId), bob);
+
+        expenseService.updateExpense(expenseId, "Dinner", 900,
+                splits(new Split(alice, 200), new Split(bob, 700)),
+                ExpenseSplitType.EXACT, alice.getUserId(), null, null);
+
+        Expense updated = expenseService.getExpenseById(expenseId);
+        assertThat(updated.getSplits()).hasSize(2);
+        assertThat(splitIdOf(updated, bob)).isEqualTo(bobSplitId);
+
+        assertThat(sheet(alice).getTotalPayment()).isEqualTo(9.00);
+        assertThat(sheet(alice).getTotalYouGetBack()).isEqualTo(7.00);
+        assertThat(sheet(alice).getTotalYourExpense()).isEqualTo(2.00);
+        assertThat(sheet(bob).getTotalYouOwe()).isEqualTo(7.00);
+        assertThat(sheet(bob).getUserVsBalance().get(alice.getUserId()).getAmountOwe()).isEqualTo(7.00);
+        assertThat(sheet(carol).getTotalYouOwe()).isZero();
+        assertThat(sheet(carol).getUserVsBalance()).isEmpty();
+    }
+
+    @Test
+    void payerChangeMovesPaymentAndDebtToTheNewPayer() {
+        expenseService.updateExpense(expenseId, "Dinner", 900,
+                splits(new Split(alice, 450), new Split(bob, 450)),
+                ExpenseSplitType.EXACT, bob.getUserId(), null, null);
+
+        assertThat(sheet(alice).getTotalPayment()).isZero();
+        assertThat(sheet(alice).getTotalYouGetBack()).isZero();
+        assertThat(sheet(alice).getTotalYouOwe()).isEqualTo(4.50);
+        assertThat(sheet(bob).getTotalPayment()).isEqualTo(9.00);
+        assertThat(sheet(bob).getTotalYouGetBack()).isEqualTo(4.50);
+        assertThat(sheet(bob).getTotalYouOwe()).isZero();
+        assertThat(sheet(bob).getUserVsBalance().get(alice.getUserId()).getAmountGetBack()).isEqualTo(4.50);
+        assertThat(sheet(carol).getUserVsBalance()).isEmpty();
+    }
+
+    @Test
+    void deleteReturnsEveryBalanceToZero() {
+        expenseService.deleteExpense(expenseId);
+
+        for (User user : List.of(alice, bob, carol)) {
+            BalanceSheetResponse sheet = sheet(user);
+            assertThat(sheet.getTotalPayment()).isZero();
+            assertThat(sheet.getTotalYourExpense()).isZero();
+            assertThat(sheet.getTotalYouGetBack()).isZero();
+            assertThat(sheet.getTotalYouOwe()).isZero();
+            assertThat(sheet.getUserVsBalance()).isEmpty();
+        }
+    }
+
+    private BalanceSheetResponse sheet(User user) {
+        return balanceSheetService.getBalanceSheetResponse(user.getUserId());
+    }
+
+    private static Long splitIdOf(Expense expense, User user) {
+        return expense.getSplits().stream()
+                .filter(split -> split.getUser().getUserId().equals(user.getUserId()))
+                .findFirst()
+                .orElseThrow()
+                .getId();
+    }
+
+    private static List<Split> splits(Split... splits) {
+        return new ArrayList<>(List.of(splits));
+    }
+}
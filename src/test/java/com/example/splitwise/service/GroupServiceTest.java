@@ -0,0 +1,47 @@
+package com.example.splitwise.service;
+
+import com.example.splitwise.entities.Group;
+import com.example.splitwise.entities.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class GroupServiceTest {
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void pageRostersMatchTheSingleGroupRosters() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User alice = userService.createUser("alice-" + suffix, "Alice", "alice-" + suffix + "@example.com", null);
+        User bob = userService.createUser("bob-" + suffix, "Bob", "bob-" + suffix + "@example.com", null);
+        User carol = userService.createUser("carol-" + suffix, "Carol", "carol-" + suffix + "@example.com", null);
+        Group trip = groupService.createGroup("TRIP-" + suffix, "Trip", alice.getUserId());
+        groupService.addMemberToGroup(trip.getGroupId(), carol.getUserId());
+        groupService.addMemberToGroup(trip.getGroupId(), bob.getUserId());
+        Group flat = groupService.createGroup("FLAT-" + suffix, "Flat", bob.getUserId());
+
+        Map<String, List<String>> rosters = groupService.getMemberUserIds(List.of(trip, flat));
+
+        assertThat(rosters).containsOnlyKeys(trip.getGroupId(), flat.getGroupId());
+        assertThat(rosters.get(trip.getGroupId())).isEqualTo(groupService.getMemberUserIds(trip))
+                .containsExactlyInAnyOrder(alice.getUserId(), bob.getUserId(), carol.getUserId());
+        assertThat(rosters.get(flat.getGroupId())).containsExactly(bob.getUserId());
+    }
+
+    @Test
+    void noGroupsNeedNoQuery() {
+        assertThat(groupService.getMemberUserIds(List.<Group>of())).isEmpty();
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.splitwise.service;
+
+import com.example.splitwise.entities.Expense;
+import com.example.splitwise.entities.LedgerEntry;
+import com.example.splitwise.entities.Split;
+import com.example.splitwise.entities.User;
+import com.example.splitwise.enums.LedgerProjectionMode;
+import com.example.splitwise.repository.LedgerEntryRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class LedgerServiceTest {
+
+    private final LedgerEntryRepository ledgerEntryRepository = mock(LedgerEntryRepository.class);
+    private final BalanceSheetService balanceSheetService = mock(BalanceSheetService.class);
+
+    private final User alice = user("alice");
+    private final User bob = user("bob");
+
+    @Test
+    void editWritesOnlyTheLegsWhoseAmountChanged() {
+        Expense previous = expense(alice, new Split(alice, 500), new Split(bob, 500));
+        Expense current = expense(alice, new Split(alice, 400), new Split(bob, 600));
+
+        List<LedgerEntry> entries = recordChange(LedgerProjectionMode.ASYNC, previous, current);
+
+        assertThat(entries)
+                .extracting(LedgerEntry::getPayerUserId, LedgerEntry::getParticipantUserId, LedgerEntry::getAmount)
+                .containsExactly(
+                        tuple("alice", "alice", -100L),
+                        tuple("alice", "bob", 100L));
+        assertThat(entries).allSatisfy(entry -> {
+            assertThat(entry.getExpenseId()).isEqualTo("EXP-1");
+            assertThat(entry.isApplied()).isFalse();
+        });
+    }
+
+    @Test
+    void deleteReversesEveryLeg() {
+        Expense previous = expense(alice, new Split(alice, 500), new Split(bob, 500));
+
+        List<LedgerEntry> entries = recordChange(LedgerProjectionMode.ASYNC, previous, null);
+
+        assertThat(entries)
+                .extracting(LedgerEntry::getPayerUserId, LedgerEntry::getParticipantUserId, LedgerEntry::getAmount)
+                .containsExactly(
+                        tuple("alice", "alice", -500L),
+                        tuple("alice", "bob", -500L));
+    }
+
+    @Test
+    void payerChangeReversesTheOldPayersLegsAndAddsTheNewOnes() {
+        Expense previous = expense(alice, new Split(alice, 500), new Split(bob, 500));
+        Expense current = expense(bob, new Split(alice, 500), new Split(bob, 500));
+
+        List<LedgerEntry> entries = recordChange(LedgerProjectionMode.ASYNC, previous, current);
+
+        assertThat(entries)
+                .extracting(LedgerEntry::getPayerUserId, LedgerEntry::getParticipantUserId, LedgerEntry::getAmount)
+                .containsExactly(
+                        tuple("alice", "alice", -500L),
+                        tuple("alice", "bob", -500L),
+                        tuple("bob", "alice", 500L),
+                        tuple("bob", "bob", 500L));
+        assertThat(entries.stream().mapToLong(LedgerEntry::getAmount).sum()).isZero();
+    }
+
+    @Test
+    void participantSwapLeavesUnchangedLegsOut() {
+        User carol = user("carol");
+        Expense previous = expense(alice, new Split(alice, 300), new Split(bob, 300), new Split(carol, 300));
+        Expense current = expense(alice, new Split(alice, 300), new Split(carol, 600));
+
+        List<LedgerEntry> entries = recordChange(LedgerProjectionMode.ASYNC, previous, current);
+
+        assertThat(entries)
+                .extracting(LedgerEntry::getParticipantUserId, LedgerEntry::getAmount)
+                .containsExactly(
+                        tuple("bob", -300L),
+                        tuple("carol", 300L));
+    }
+
+    @Test
+    void unchangedExpenseWritesNothing() {
+        Expense previous = expense(alice, new Split(alice, 500), new Split(bob, 500));
+        Expense current = expense(alice, new Split(bob, 500), new Split(alice, 500));
+
+        new LedgerService(ledgerEntryRepository, balanceSheetService, LedgerProjectionMode.SYNC)
+                .recordExpenseChange(previous, current);
+
+        verify(ledgerEntryRepository, never()).saveAll(any());
+        verify(balanceSheetService, never()).applyLedgerEntries(anyList());
+    }
+
+    @Test
+    void syncModeFoldsTheDeltasIntoBalancesBeforeSavingThem() {
+        Expense previous = expense(alice, new Split(alice, 500), new Split(bob, 500));
+
+        List<LedgerEntry> entries = recordChange(LedgerProjectionMode.SYNC, previous, null);
+
+        InOrder order = inOrder(balanceSheetService, ledgerEntryRepository);
+        order.verify(balanceSheetService).applyLedgerEntries(entries);
+        order.verify(ledgerEntryRepository).saveAll(entries);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<LedgerEntry> recordChange(LedgerProjectionMode mode, Expense previous, Expense current) {
+        new LedgerService(ledgerEntryRepository, balanceSheetService, mode).recordExpenseChange(previous, current);
+
+        ArgumentCaptor<List<LedgerEntry>> saved = ArgumentCaptor.forClass(List.class);
+        verify(ledgerEntryRepository).saveAll(saved.capture());
+        return saved.getValue();
+    }
+
+    private static Expense expense(User paidBy, Split... splits) {
+        long amount = 0;
+        for (Split split : splits) {
+            amount += split.getAmountOwe();
+        }
+        return Expense.builder()
+                .expenseId("EXP-1")
+                .expenseAmount(amount)
+                .paidBy(paidBy)
+                .splits(List.of(splits))
+                .build();
+    }
+
+    private static User user(String userId) {
+        return User.builder().userId(userId).name(userId).build();
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.splitwise.service;
+
+import com.example.splitwise.dto.SettlementTransfer;
+import com.example.splitwise.util.Money;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class SettlementServiceTest {
+
+    @Test
+    void largestDebtorPaysLargestCreditorFirst() {
+        List<SettlementTransfer> transfers = SettlementService.computeTransfers(Map.of(
+                "alice", 10_000L,
+                "bob", -6_000L,
+                "carol", -4_000L));
+
+        assertThat(transfers)
+                .extracting(SettlementTransfer::getFromUserId, SettlementTransfer::getToUserId,
+                        SettlementTransfer::getAmount)
+                .containsExactly(
+                        tuple("bob", "alice", 60.0),
+                        tuple("carol", "alice", 40.0));
+    }
+
+    @Test
+    void tiesAreBrokenByUserIdSoTheResultIsDeterministic() {
+        List<SettlementTransfer> transfers = SettlementService.computeTransfers(Map.of(
+                "dave", -5_000L,
+                "bob", 5_000L,
+                "carol", -5_000L,
+                "alice", 5_000L));
+
+        assertThat(transfers)
+                .extracting(SettlementTransfer::getFromUserId, SettlementTransfer::getToUserId,
+                        SettlementTransfer::getAmount)
+                .containsExactly(
+                        tuple("carol", "alice", 50.0),
+                        tuple("dave", "bob", 50.0));
+    }
+
+    @Test
+    void oneMemberGroupNeedsNoTransfers() {
+        assertThat(SettlementService.computeTransfers(Map.of("alice", 0L))).isEmpty();
+        assertThat(SettlementService.computeTransfers(Map.of())).isEmpty();
+    }
+
+    @Test
+    void settledMembersAreLeftOut() {
+        List<SettlementTransfer> transfers = SettlementService.computeTransfers(Map.of(
+                "alice", 2_500L,
+                "bob", 0L,
+                "carol", -2_500L));
+
+        assertThat(transfers)
+                .extracting(SettlementTransfer::getFromUserId, SettlementTransfer::getToUserId)
+                .containsExactly(tuple("carol", "alice"));
+    }
+
+    @Test
+    void transfersSettleEveryPositionWithAtMostOneFewerTransferThanMembers() {
+        Map<String, Long> positions = Map.of(
+                "a", 12_345L,
+                "b", -2_345L,
+                "c", 7_001L,
+                "d", -9_999L,
+                "e", -7_002L,
+                "f", 0L);
+
+        List<SettlementTransfer> transfers = SettlementService.computeTransfers(positions);
+
+        Map<String, Long> remaining = new HashMap<>(positions);
+        for (SettlementTransfer transfer : transfers) {
+            long amount = Money.toMinor(transfer.getAmount());
+            assertThat(amount).isPositive();
+            remaining.merge(transfer.getFromUserId(), amount, Long::sum);
+            remaining.merge(transfer.getToUserId(), -amount, Long::sum);
+        }
+        assertThat(remaining.values()).containsOnly(0L);
+        assertThat(transfers).hasSizeLessThanOrEqualTo(positions.size() - 1);
+    }
+}
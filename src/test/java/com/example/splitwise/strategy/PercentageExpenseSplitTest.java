@@ -0,0 +1,52 @@
+package com.example.splitwise.strategy;
+
+import com.example.splitwise.entities.Split;
+import com.example.splitwise.entities.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PercentageExpenseSplitTest {
+
+    private final PercentageExpenseSplit percentageSplit = new PercentageExpenseSplit();
+    private final List<User> users = List.of(user("a"), user("b"), user("c"));
+
+    @Test
+    void basisPointsThatSumToOneHundredPercentSplitTheWholeAmount() {
+        // 33.33% + 33.33% + 33.34% of 100.00
+        List<Split> splits = percentageSplit.validateAndGetSplits(users, new long[]{3_333, 3_333, 3_334}, 10_000);
+
+        assertThat(splits).extracting(Split::getAmountOwe).containsExactly(3_333L, 3_333L, 3_334L);
+        assertThat(splits).extracting(split -> split.getUser().getUserId()).containsExactly("a", "b", "c");
+    }
+
+    @Test
+    void roundingLeftoversAreSpreadWithoutLosingACent() {
+        // 12.5% + 25% + 62.5% of 0.99
+        List<Split> splits = percentageSplit.validateAndGetSplits(users, new long[]{1_250, 2_500, 6_250}, 99);
+
+        assertThat(splits).extracting(Split::getAmountOwe).containsExactly(12L, 25L, 62L);
+        assertThat(splits.stream().mapToLong(Split::getAmountOwe).sum()).isEqualTo(99);
+    }
+
+    @Test
+    void percentagesMustAddUpToExactlyOneHundred() {
+        assertThatThrownBy(() -> percentageSplit.validateAndGetSplits(users, new long[]{3_333, 3_333, 3_333}, 10_000))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("99.99");
+    }
+
+    @Test
+    void everyUserNeedsAPercentage() {
+        assertThatThrownBy(() -> percentageSplit.validateAndGetSplits(users, new long[]{5_000, 5_000}, 10_000))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("must match number of percentages");
+    }
+
+    private static User user(String userId) {
+        return User.builder().userId(userId).name(userId).build();
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.splitwise.strategy;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+
+class SplitCalculatorTest {
+
+    @Test
+    void equalSharesGiveTheRemainderToTheFirstParticipants() {
+        long[] shares = new long[3];
+
+        SplitCalculator.allocateEqually(1_000, shares);
+
+        assertThat(shares).containsExactly(334, 333, 333);
+    }
+
+    @Test
+    void equalSharesWithoutRemainderAreIdentical() {
+        long[] shares = new long[4];
+
+        SplitCalculator.allocateEqually(1_000, shares);
+
+        assertThat(shares).containsExactly(250, 250, 250, 250);
+    }
+
+    @Test
+    void equalSharesOfLessThanOneUnitPerParticipant() {
+        long[] shares = new long[5];
+
+        SplitCalculator.allocateEqually(3, shares);
+
+        assertThat(shares).containsExactly(1, 1, 1, 0, 0);
+    }
+
+    @Test
+    void equalSharesAlwaysSumToTheTotal() {
+        for (int participants = 1; participants <= 50; participants++) {
+            long[] shares = new long[participants];
+            SplitCalculator.allocateEqually(123_457, shares);
+
+            assertThat(SplitCalculator.sum(shares)).isEqualTo(123_457);
+            assertThat(shares[0] - shares[participants - 1]).isBetween(0L, 1L);
+        }
+    }
+
+    @Test
+    void proportionalSharesFloorCumulativelySoTheySumToTheTotal() {
+        long[] shares = new long[3];
+
+        SplitCalculator.allocateProportionally(100, new long[]{3_333, 3_333, 3_334}, 10_000, shares);
+
+        assertThat(shares).containsExactly(33, 33, 34);
+        assertThat(SplitCalculator.sum(shares)).isEqualTo(100);
+    }
+
+    @Test
+    void proportionalSharesStayWithinOneUnitOfTheExactValue() {
+        long[] weights = {1_250, 2_500, 6_250};
+        long[] shares = new long[3];
+
+        SplitCalculator.allocateProportionally(1_001, weights, 10_000, shares);
+
+        assertThat(SplitCalculator.sum(shares)).isEqualTo(1_001);
+        for (int i = 0; i < weights.length; i++) {
+            double exact = 1_001 * weights[i] / 10_000.0;
+            assertThat((double) shares[i]).isCloseTo(exact, offset(1.0));
+        }
+    }
+
+    @Test
+    void proportionalOverflowIsRejectedAsBadInput() {
+        long[] shares = new long[2];
+
+        assertThatThrownBy(() -> SplitCalculator.allocateProportionally(
+                Long.MAX_VALUE / 2, new long[]{5_000, 5_000}, 10_000, shares))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("too large");
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.splitwise.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    @Test
+    void majorAmountsRoundHalfUpToCents() {
+        assertThat(Money.toMinor(10.005)).isEqualTo(1_001);
+        assertThat(Money.toMinor(0.1 + 0.2)).isEqualTo(30);
+        assertThat(Money.toMinor(-2.5)).isEqualTo(-250);
+    }
+
+    @Test
+    void theLargestAmountIsAccepted() {
+        assertThat(Money.toMinor(100_000_000_000.00)).isEqualTo(Money.MAX_MINOR_AMOUNT);
+        assertThat(Money.toMinor(-100_000_000_000.00)).isEqualTo(-Money.MAX_MINOR_AMOUNT);
+    }
+
+    @Test
+    void amountsOutOfRangeAreBadInputRatherThanOverflow() {
+        assertThatThrownBy(() -> Money.toMinor(1e20))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("out of range");
+        assertThatThrownBy(() -> Money.toMinor(100_000_000_000.01))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Money.toMinor(Double.NaN))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Money.toMinor(null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void formatPrintsTwoPlacesWithoutExponent() {
+        assertThat(Money.format(1_000_000_000L)).isEqualTo("10000000.00");
+        assertThat(Money.format(-5)).isEqualTo("-0.05");
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.splitwise.util;
+
+import com.example.splitwise.dto.CursorPage;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PaginationTest {
+
+    @Test
+    void limitIsClampedToOneThroughMax() {
+        assertThat(Pagination.clampLimit(0)).isEqualTo(1);
+        assertThat(Pagination.clampLimit(-5)).isEqualTo(1);
+        assertThat(Pagination.clampLimit(20)).isEqualTo(20);
+        assertThat(Pagination.clampLimit(10_000)).isEqualTo(Pagination.MAX_LIMIT);
+    }
+
+    @Test
+    void probeFetchesOneRowMoreThanTheLimit() {
+        assertThat(Pagination.probe(50).getPageSize()).isEqualTo(51);
+        assertThat(Pagination.probe(50).getPageNumber()).isZero();
+    }
+
+    @Test
+    void missingIdCursorStartsFromTheBeginning() {
+        assertThat(Pagination.afterId(null)).isZero();
+        assertThat(Pagination.afterId("")).isZero();
+    }
+
+    @Test
+    void nextCursorOfAPageParsesBackToItsLastId() {
+        List<Long> fetched = List.of(3L, 7L, 12L, 40L);
+
+        CursorPage<Long> page = CursorPage.of(fetched, 3, Function.identity());
+
+        assertThat(page.getItems()).containsExactly(3L, 7L, 12L);
+        assertThat(page.isHasMore()).isTrue();
+        assertThat(Pagination.afterId(page.getNextCursor())).isEqualTo(12L);
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        CursorPage<Long> page = CursorPage.of(List.of(3L, 7L), 3, Function.identity());
+
+        assertThat(page.isHasMore()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void malformedIdCursorIsBadInput() {
+        assertThatThrownBy(() -> Pagination.afterId("abc"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid cursor");
+    }
+
+    @Test
+    void timeCursorRoundTripsInstantAndId() {
+        Instant at = Instant.parse("2024-03-01T12:34:56.123456Z");
+
+        Pagination.TimeCursor cursor = Pagination.parseTimeCursor(Pagination.timeCursor(at, 42L));
+
+        assertThat(cursor.at()).isEqualTo(at);
+        assertThat(cursor.id()).isEqualTo(42L);
+    }
+
+    @Test
+    void timeCursorRoundTripsWholeSecondsAndTheEpoch() {
+        for (Instant at : List.of(Instant.parse("2024-03-01T00:00:00Z"), Instant.EPOCH)) {
+            Pagination.TimeCursor cursor = Pagination.parseTimeCursor(Pagination.timeCursor(at, Long.MAX_VALUE));
+
+            assertThat(cursor).isEqualTo(new Pagination.TimeCursor(at, Long.MAX_VALUE));
+        }
+    }
+
+    @Test
+    void timeCursorIsUrlSafe() {
+        String cursor = Pagination.timeCursor(Instant.parse("2024-03-01T12:34:56.999999Z"), 123_456_789L);
+
+        assertThat(cursor).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void missingTimeCursorMeansTheFirstPage() {
+        assertThat(Pagination.parseTimeCursor(null)).isNull();
+        assertThat(Pagination.parseTimeCursor("")).isNull();
+    }
+
+    @Test
+    void malformedTimeCursorsAreBadInput() {
+        String noSeparator = Base64.getUrlEncoder().encodeToString("2024-03-01T00:00:00Z".getBytes());
+        String badInstant = Base64.getUrlEncoder().encodeToString("yesterday|5".getBytes());
+        String badId = Base64.getUrlEncoder().encodeToString("2024-03-01T00:00:00Z|x".getBytes());
+
+        for (String cursor : List.of("not base64!", noSeparator, badInstant, badId)) {
+            assertThatThrownBy(() -> Pagination.parseTimeCursor(cursor))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("Invalid cursor");
+        }
+    }
+}